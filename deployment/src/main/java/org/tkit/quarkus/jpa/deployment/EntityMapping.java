@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tkit.quarkus.jpa.deployment;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.IndexView;
+
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The build time mapping of the entity class read from the field annotations of the entity and its super classes.
+ */
+class EntityMapping {
+
+    private static final DotName ENTITY = DotName.createSimple(Entity.class.getName());
+    private static final DotName TABLE = DotName.createSimple(Table.class.getName());
+    private static final DotName ID = DotName.createSimple(Id.class.getName());
+    private static final DotName EMBEDDED_ID = DotName.createSimple(EmbeddedId.class.getName());
+    private static final DotName ID_CLASS = DotName.createSimple(IdClass.class.getName());
+    private static final DotName VERSION = DotName.createSimple(Version.class.getName());
+    private static final DotName TRANSIENT = DotName.createSimple(Transient.class.getName());
+    private static final DotName COLUMN = DotName.createSimple(Column.class.getName());
+    private static final DotName JOIN_COLUMN = DotName.createSimple(JoinColumn.class.getName());
+
+    /**
+     * The association annotations.
+     */
+    private static final List<DotName> ASSOCIATIONS = List.of(
+            DotName.createSimple(OneToOne.class.getName()),
+            DotName.createSimple(OneToMany.class.getName()),
+            DotName.createSimple(ManyToOne.class.getName()),
+            DotName.createSimple(ManyToMany.class.getName()),
+            DotName.createSimple(ElementCollection.class.getName()));
+
+    /**
+     * The name of the annotation attribute name.
+     */
+    private static final String ATTRIBUTE_NAME = "name";
+
+    /**
+     * The entity class name.
+     */
+    String entityClass;
+
+    /**
+     * The entity name.
+     */
+    String entityName;
+
+    /**
+     * The ID attribute name or empty string for the entity without ID attribute or with the {@code @IdClass}.
+     */
+    String idAttribute = "";
+
+    /**
+     * The ID type class name or empty string.
+     */
+    String idType = "";
+
+    /**
+     * The ID attribute paths in the declaration order of the fields. The paths of the embedded ID are prefixed with
+     * the ID attribute name.
+     */
+    final List<String> idAttributes = new ArrayList<>();
+
+    /**
+     * The version attribute name or empty string.
+     */
+    String versionAttribute = "";
+
+    /**
+     * The table name.
+     */
+    String table;
+
+    /**
+     * The columns of the attributes.
+     */
+    final Map<String, String> columns = new LinkedHashMap<>();
+
+    /**
+     * The association attributes.
+     */
+    final List<String> associations = new ArrayList<>();
+
+    /**
+     * The embedded ID flag.
+     */
+    private boolean embeddedId;
+
+    /**
+     * Reads the mapping of the entity class.
+     *
+     * @param view   the index.
+     * @param entity the entity class.
+     * @return the entity mapping.
+     */
+    static EntityMapping of(IndexView view, ClassInfo entity) {
+        EntityMapping m = new EntityMapping();
+        m.entityClass = entity.name().toString();
+        m.entityName = stringValue(entity.classAnnotation(ENTITY), entity.name().withoutPackagePrefix());
+        m.table = stringValue(entity.classAnnotation(TABLE), m.entityName);
+
+        // the attributes of the super classes first
+        Deque<ClassInfo> hierarchy = new ArrayDeque<>();
+        ClassInfo tmp = entity;
+        while (tmp != null) {
+            hierarchy.push(tmp);
+            tmp = tmp.superName() == null ? null : view.getClassByName(tmp.superName());
+        }
+        String idClass = null;
+        for (ClassInfo c : hierarchy) {
+            AnnotationInstance annotation = c.classAnnotation(ID_CLASS);
+            if (annotation != null) {
+                idClass = annotation.value().asClass().name().toString();
+            }
+            for (FieldInfo f : persistentFields(c)) {
+                m.field(f);
+            }
+        }
+
+        if (idClass != null || m.idAttributes.size() > 1) {
+            // composite key mapped by the id fields of the entity
+            m.idAttribute = "";
+            m.idType = idClass != null ? idClass : "";
+        } else if (m.embeddedId) {
+            ClassInfo embeddable = view.getClassByName(DotName.createSimple(m.idType));
+            if (embeddable != null) {
+                for (FieldInfo f : persistentFields(embeddable)) {
+                    m.idAttributes.add(m.idAttribute + "." + f.name());
+                }
+            }
+            if (m.idAttributes.isEmpty()) {
+                m.idAttributes.add(m.idAttribute);
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Gets the persistent fields of the class in the declaration order. The {@code fields()} of the index are sorted
+     * by the name, the ID attributes of the composite key have to keep the order of the declaration.
+     *
+     * @param c the class.
+     * @return the persistent fields.
+     */
+    private static List<FieldInfo> persistentFields(ClassInfo c) {
+        List<FieldInfo> result = new ArrayList<>();
+        for (FieldInfo f : c.unsortedFields()) {
+            if (!Modifier.isStatic(f.flags()) && !Modifier.isTransient(f.flags()) && !f.hasAnnotation(TRANSIENT)) {
+                result.add(f);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the mapping of the field.
+     *
+     * @param f the field.
+     */
+    private void field(FieldInfo f) {
+        String name = f.name();
+        if (f.hasAnnotation(ID)) {
+            idAttribute = name;
+            idType = f.type().name().toString();
+            idAttributes.add(name);
+        } else if (f.hasAnnotation(EMBEDDED_ID)) {
+            idAttribute = name;
+            idType = f.type().name().toString();
+            embeddedId = true;
+        }
+        if (f.hasAnnotation(VERSION)) {
+            versionAttribute = name;
+        }
+        for (DotName association : ASSOCIATIONS) {
+            if (f.hasAnnotation(association)) {
+                associations.add(name);
+                AnnotationInstance joinColumn = f.annotation(JOIN_COLUMN);
+                if (joinColumn != null) {
+                    columns.put(name, stringValue(joinColumn, name));
+                }
+                return;
+            }
+        }
+        columns.put(name, stringValue(f.annotation(COLUMN), name));
+    }
+
+    /**
+     * Gets the name attribute of the annotation.
+     *
+     * @param annotation   the annotation or {@code null}.
+     * @param defaultValue the default value.
+     * @return the name attribute or the default value.
+     */
+    private static String stringValue(AnnotationInstance annotation, String defaultValue) {
+        if (annotation != null) {
+            AnnotationValue value = annotation.value(ATTRIBUTE_NAME);
+            if (value != null && !value.asString().isEmpty()) {
+                return value.asString();
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -42,16 +42,24 @@ public class EntityServiceBuilderEnhancer implements BiFunction<String, ClassVis
      */
     private String idAttributeName;
 
+    /**
+     * The persistence unit name.
+     */
+    private String persistenceUnitName;
+
     /**
      * The default constructor.
      *
-     * @param entityName  entity name.
-     * @param entityClass entity class.
+     * @param entityName          entity name.
+     * @param entityClass         entity class.
+     * @param idAttributeName     the ID attribute name.
+     * @param persistenceUnitName the persistence unit name or {@code null} for the default persistence unit.
      */
-    public EntityServiceBuilderEnhancer(String entityName, String entityClass, String idAttributeName) {
+    public EntityServiceBuilderEnhancer(String entityName, String entityClass, String idAttributeName, String persistenceUnitName) {
         this.entityClass = entityClass;
         this.entityName = entityName;
         this.idAttributeName = idAttributeName;
+        this.persistenceUnitName = persistenceUnitName;
     }
 
     /**
@@ -59,7 +67,7 @@ public class EntityServiceBuilderEnhancer implements BiFunction<String, ClassVis
      */
     @Override
     public ClassVisitor apply(String className, ClassVisitor outputClassVisitor) {
-        return new EntityServiceBuilderEnhancerClassVisitor(className, outputClassVisitor, entityName, entityClass, idAttributeName);
+        return new EntityServiceBuilderEnhancerClassVisitor(className, outputClassVisitor, entityName, entityClass, idAttributeName, persistenceUnitName);
     }
 
     /**
@@ -80,11 +88,17 @@ public class EntityServiceBuilderEnhancer implements BiFunction<String, ClassVis
          */
         private String idAttributeName;
 
-        public EntityServiceBuilderEnhancerClassVisitor(String className, ClassVisitor outputClassVisitor, String entityName, String entityClass, String idAttributeName) {
+        /**
+         * The persistence unit name.
+         */
+        private String persistenceUnitName;
+
+        public EntityServiceBuilderEnhancerClassVisitor(String className, ClassVisitor outputClassVisitor, String entityName, String entityClass, String idAttributeName, String persistenceUnitName) {
             super(Opcodes.ASM7, outputClassVisitor);
             this.entityClass = entityClass.replace('.', '/');
             this.entityName = entityName;
             this.idAttributeName = idAttributeName;
+            this.persistenceUnitName = persistenceUnitName;
         }
 
         /**
@@ -125,6 +139,19 @@ public class EntityServiceBuilderEnhancer implements BiFunction<String, ClassVis
             ma.visitInsn(Opcodes.ARETURN);
             ma.visitMaxs(0, 0);
             ma.visitEnd();
+
+            if (persistenceUnitName != null) {
+                MethodVisitor mp = super.visitMethod(Opcodes.ACC_PROTECTED | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE,
+                        "getPersistenceUnitName",
+                        "()Ljava/lang/String;",
+                        null,
+                        null);
+                mp.visitCode();
+                mp.visitLdcInsn(persistenceUnitName);
+                mp.visitInsn(Opcodes.ARETURN);
+                mp.visitMaxs(0, 0);
+                mp.visitEnd();
+            }
             super.visitEnd();
         }
     }
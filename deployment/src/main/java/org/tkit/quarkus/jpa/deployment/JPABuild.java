@@ -16,19 +16,33 @@
 
 package org.tkit.quarkus.jpa.deployment;
 
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.arc.deployment.UnremovableBeanBuildItem;
+import io.quarkus.deployment.Capabilities;
+import io.quarkus.deployment.Capability;
 import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.ExecutionTime;
+import io.quarkus.deployment.annotations.Record;
 import io.quarkus.deployment.builditem.BytecodeTransformerBuildItem;
 import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.hibernate.orm.deployment.PersistenceUnitDescriptorBuildItem;
+import io.quarkus.resteasy.common.spi.ResteasyJaxrsProviderBuildItem;
 import org.jboss.jandex.*;
 import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.DAOPersistenceUnit;
+import org.tkit.quarkus.jpa.metamodel.EntityDescriptorRecorder;
+import org.tkit.quarkus.jpa.warmup.DAOWarmupRecorder;
+import org.tkit.quarkus.jpa.warmup.Warmup;
 
+import javax.enterprise.context.ApplicationScoped;
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
-import javax.persistence.Id;
+import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 /**
@@ -50,14 +64,38 @@ public class JPABuild {
      * The entity class.
      */
     private static final DotName ENTITY = DotName.createSimple(Entity.class.getName());
-    private static final DotName ID = DotName.createSimple(Id.class.getName());
     private static final DotName DOT_NAME_ENTITY_MANAGER = DotName.createSimple(EntityManager.class.getName());
 
+    /**
+     * The persistence unit annotation of the DAO.
+     */
+    private static final DotName DOT_NAME_PERSISTENCE_UNIT = DotName.createSimple(DAOPersistenceUnit.class.getName());
+
+    /**
+     * The warm-up annotation of the DAO.
+     */
+    private static final DotName DOT_NAME_WARMUP = DotName.createSimple(Warmup.class.getName());
+
+    /**
+     * The name of the default persistence unit.
+     */
+    private static final String DEFAULT_PERSISTENCE_UNIT = "<default>";
+
     /**
      * The name of the entity annotation attribute name.
      */
     private static final String ATTRIBUTE_NAME = "name";
 
+    /**
+     * The page result message body writer. The class depends on the optional jackson dependency.
+     */
+    private static final String PAGE_RESULT_WRITER = "org.tkit.quarkus.jpa.rs.PageResultMessageBodyWriter";
+
+    /**
+     * The readiness health check of the DAO warm-up. The class depends on the optional health dependency.
+     */
+    private static final String WARMUP_HEALTH_CHECK = "org.tkit.quarkus.jpa.warmup.DAOWarmupHealthCheck";
+
     /**
      * The extension name.
      *
@@ -74,19 +112,97 @@ public class JPABuild {
     }
 
     /**
-     * Update entity dao services to have entity class name and entity name.
+     * Register the streaming page result writer if the resteasy jackson extension is present.
+     *
+     * @param capabilities the capabilities.
+     * @param providers    the jax-rs providers.
+     */
+    @BuildStep
+    void registerPageResultWriter(Capabilities capabilities, BuildProducer<ResteasyJaxrsProviderBuildItem> providers) {
+        if (capabilities.isPresent(Capability.RESTEASY_JSON_JACKSON)) {
+            providers.produce(new ResteasyJaxrsProviderBuildItem(PAGE_RESULT_WRITER));
+        }
+    }
+
+    /**
+     * Record the DAO classes for the startup warm-up. The DAO classes annotated with {@code @Warmup(enabled = false)}
+     * are skipped.
+     *
+     * @param index    the index.
+     * @param recorder the warm-up recorder.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void recordWarmup(CombinedIndexBuildItem index, DAOWarmupRecorder recorder) {
+        IndexView view = index.getIndex();
+        List<String> daos = view.getAllKnownSubclasses(DOT_NAME_REPOSITORY).stream()
+                .filter(c -> !Modifier.isAbstract(c.flags()))
+                .filter(c -> isWarmupEnabled(view, c))
+                .map(c -> c.name().toString())
+                .sorted()
+                .collect(Collectors.toList());
+        recorder.setDAOClasses(daos);
+    }
+
+    /**
+     * Record the descriptors of all entities.
+     *
+     * @param index    the index.
+     * @param recorder the entity descriptor recorder.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void recordEntityDescriptors(CombinedIndexBuildItem index, EntityDescriptorRecorder recorder) {
+        IndexView view = index.getIndex();
+        for (AnnotationInstance annotation : view.getAnnotations(ENTITY)) {
+            if (annotation.target().kind() == AnnotationTarget.Kind.CLASS) {
+                EntityMapping m = EntityMapping.of(view, annotation.target().asClass());
+                recorder.register(m.entityClass, m.entityName, m.idAttribute, m.idType, m.idAttributes, m.versionAttribute,
+                        m.table, m.columns, m.associations);
+            }
+        }
+    }
+
+    /**
+     * Register the warm-up readiness health check if the smallrye health extension is present.
+     *
+     * @param capabilities the capabilities.
+     * @param beans        the additional beans.
+     */
+    @BuildStep
+    void registerWarmupHealthCheck(Capabilities capabilities, BuildProducer<AdditionalBeanBuildItem> beans) {
+        if (capabilities.isPresent(Capability.SMALLRYE_HEALTH)) {
+            beans.produce(AdditionalBeanBuildItem.builder()
+                    .addBeanClass(WARMUP_HEALTH_CHECK)
+                    .setDefaultScope(DotName.createSimple(ApplicationScoped.class.getName()))
+                    .setUnremovable()
+                    .build());
+        }
+    }
+
+    /**
+     * Update entity dao services to have entity class name, entity name and persistence unit name.
      *
-     * @param index        the index.
-     * @param transformers the transformer
+     * @param index            the index.
+     * @param persistenceUnits the persistence units.
+     * @param transformers     the transformer
      */
     @BuildStep
     void build(CombinedIndexBuildItem index,
+               List<PersistenceUnitDescriptorBuildItem> persistenceUnits,
                BuildProducer<BytecodeTransformerBuildItem> transformers) {
 
+        Set<String> persistenceUnitNames = persistenceUnits.stream()
+                .map(PersistenceUnitDescriptorBuildItem::getPersistenceUnitName)
+                .collect(Collectors.toSet());
         IndexView view = index.getIndex();
         for (ClassInfo classInfo : view.getAllKnownSubclasses(DOT_NAME_REPOSITORY)) {
             if (classInfo.superClassType().kind() == Type.Kind.PARAMETERIZED_TYPE) {
                 Type entity = classInfo.superClassType().asParameterizedType().arguments().get(0);
+                if (entity.kind() != Type.Kind.CLASS) {
+                    // generic DAO base class, for example the outbox DAO
+                    continue;
+                }
                 ClassInfo ec = view.getClassByName(entity.name());
                 String name = entity.name().withoutPackagePrefix();
 
@@ -101,22 +217,55 @@ public class JPABuild {
                         }
                     }
                 }
-                String idAttributeName = getIdAttributeName(view, ec);
-                transformers.produce(new BytecodeTransformerBuildItem(classInfo.name().toString(), new EntityServiceBuilderEnhancer(name, entity.name().toString(), idAttributeName)));
+                String idAttributeName = EntityMapping.of(view, ec).idAttribute;
+                String persistenceUnitName = getPersistenceUnitName(view, classInfo);
+                if (persistenceUnitName != null && !DEFAULT_PERSISTENCE_UNIT.equals(persistenceUnitName)
+                        && !persistenceUnitNames.contains(persistenceUnitName)) {
+                    throw new IllegalStateException("The persistence unit '" + persistenceUnitName + "' of the DAO "
+                            + classInfo.name() + " is not configured. Configured persistence units: " + persistenceUnitNames);
+                }
+                transformers.produce(new BytecodeTransformerBuildItem(classInfo.name().toString(), new EntityServiceBuilderEnhancer(name, entity.name().toString(), idAttributeName, persistenceUnitName)));
             }
         }
     }
 
-    private String getIdAttributeName(IndexView view, ClassInfo ec) {
-        for (FieldInfo f : ec.fields()) {
-            if (f.hasAnnotation(ID)) {
-                return f.name();
+    /**
+     * Gets the persistence unit name of the DAO class or its super classes.
+     *
+     * @param view      the index.
+     * @param classInfo the DAO class.
+     * @return the persistence unit name or {@code null}.
+     */
+    private String getPersistenceUnitName(IndexView view, ClassInfo classInfo) {
+        ClassInfo tmp = classInfo;
+        while (tmp != null && !DOT_NAME_REPOSITORY.equals(tmp.name())) {
+            AnnotationInstance annotation = tmp.classAnnotation(DOT_NAME_PERSISTENCE_UNIT);
+            if (annotation != null) {
+                return annotation.value().asString();
             }
+            tmp = tmp.superName() == null ? null : view.getClassByName(tmp.superName());
         }
-        if (ec.superName() != null) {
-            return getIdAttributeName(view, view.getClassByName(ec.superName()));
+        return null;
+    }
+
+    /**
+     * Returns {@code false} if the DAO class or its super class is annotated with {@code @Warmup(enabled = false)}.
+     *
+     * @param view      the index.
+     * @param classInfo the DAO class.
+     * @return {@code true} if the warm-up of the DAO is enabled.
+     */
+    private boolean isWarmupEnabled(IndexView view, ClassInfo classInfo) {
+        ClassInfo tmp = classInfo;
+        while (tmp != null && !DOT_NAME_REPOSITORY.equals(tmp.name())) {
+            AnnotationInstance annotation = tmp.classAnnotation(DOT_NAME_WARMUP);
+            if (annotation != null) {
+                AnnotationValue enabled = annotation.value("enabled");
+                return enabled == null || enabled.asBoolean();
+            }
+            tmp = tmp.superName() == null ? null : view.getClassByName(tmp.superName());
         }
-        return "";
+        return true;
     }
 
 }
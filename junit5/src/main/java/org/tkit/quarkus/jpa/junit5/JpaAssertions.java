@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.junit5;
+
+import org.tkit.quarkus.jpa.diagnostics.StatementCounter;
+
+import java.util.Map;
+
+/**
+ * The statement count assertions for the quarkus tests.
+ * <p>
+ * The statements are counted from the start of the test method or from the last {@link #resetStatements()} call.
+ * The hibernate statistics have to be enabled ({@code quarkus.hibernate-orm.statistics=true}).
+ * <pre>
+ * {@code
+ * JpaAssertions.resetStatements();
+ * userDAO.createPageQuery(Page.of(0, 100)).getPageResult().getStream().count();
+ * JpaAssertions.assertMaxStatements(2);
+ * JpaAssertions.assertNoRepeatedSelects();
+ * }
+ * </pre>
+ */
+public class JpaAssertions {
+
+    /**
+     * The statement counter of the current test.
+     */
+    private static final ThreadLocal<StatementCounter> COUNTER = new ThreadLocal<>();
+
+    /**
+     * The default constructor.
+     */
+    private JpaAssertions() {
+        // empty constructor
+    }
+
+    /**
+     * Resets the statement counter.
+     */
+    public static void resetStatements() {
+        StatementCounter counter = COUNTER.get();
+        if (counter == null) {
+            COUNTER.set(StatementCounter.start());
+        } else {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Gets the statement counter of the current test.
+     *
+     * @return the statement counter.
+     */
+    public static StatementCounter getStatementCounter() {
+        StatementCounter counter = COUNTER.get();
+        if (counter == null) {
+            counter = StatementCounter.start();
+            COUNTER.set(counter);
+        }
+        return counter;
+    }
+
+    /**
+     * Asserts the max number of the executed statements.
+     *
+     * @param max the max number of the statements.
+     */
+    public static void assertMaxStatements(long max) {
+        StatementCounter counter = getStatementCounter();
+        long statements = counter.getStatements();
+        if (statements > max) {
+            throw new AssertionError("Expected max " + max + " statements but " + statements + " were executed. Repeated selects: "
+                    + counter.getRepeatedSelects());
+        }
+    }
+
+    /**
+     * Asserts that no entity was fetched and no query executed more than once.
+     */
+    public static void assertNoRepeatedSelects() {
+        Map<String, Long> repeated = getStatementCounter().getRepeatedSelects();
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Repeated selects (N+1): " + repeated);
+        }
+    }
+
+    /**
+     * Starts the statement counter of the test.
+     */
+    static void start() {
+        COUNTER.set(StatementCounter.start());
+    }
+
+    /**
+     * Removes the statement counter of the test.
+     */
+    static void remove() {
+        COUNTER.remove();
+    }
+}
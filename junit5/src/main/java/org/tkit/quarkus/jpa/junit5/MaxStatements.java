@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.junit5;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The max number of the statements executed by the test method.
+ * <p>
+ * The statements are counted from the start to the end of the test method and the test fails
+ * if the number of the statements is greater than the value.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxStatements {
+
+    /**
+     * The max number of the statements.
+     *
+     * @return the max number of the statements.
+     */
+    int value();
+
+    /**
+     * Fails the test if any entity is fetched or query executed more than once (N+1 pattern).
+     *
+     * @return {@code true} to fail the test for the repeated selects.
+     */
+    boolean noRepeatedSelects() default false;
+}
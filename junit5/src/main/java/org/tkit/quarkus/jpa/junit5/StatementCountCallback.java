@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.junit5;
+
+import io.quarkus.test.junit.callback.QuarkusTestAfterEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestBeforeEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestMethodContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * The quarkus test callback which starts the statement counter before each test and checks
+ * the {@link MaxStatements} annotation of the test method or class after each test.
+ */
+public class StatementCountCallback implements QuarkusTestBeforeEachCallback, QuarkusTestAfterEachCallback {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beforeEach(QuarkusTestMethodContext context) {
+        if (getMaxStatements(context) != null) {
+            JpaAssertions.start();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void afterEach(QuarkusTestMethodContext context) {
+        MaxStatements max = getMaxStatements(context);
+        try {
+            if (max != null) {
+                JpaAssertions.assertMaxStatements(max.value());
+                if (max.noRepeatedSelects()) {
+                    JpaAssertions.assertNoRepeatedSelects();
+                }
+            }
+        } finally {
+            JpaAssertions.remove();
+        }
+    }
+
+    /**
+     * Gets the max statements annotation of the test method or test class.
+     *
+     * @param context the test method context.
+     * @return the max statements annotation or {@code null}.
+     */
+    private static MaxStatements getMaxStatements(QuarkusTestMethodContext context) {
+        Method method = context.getTestMethod();
+        MaxStatements max = method == null ? null : method.getAnnotation(MaxStatements.class);
+        if (max == null && context.getTestInstance() != null) {
+            max = context.getTestInstance().getClass().getAnnotation(MaxStatements.class);
+        }
+        return max;
+    }
+}
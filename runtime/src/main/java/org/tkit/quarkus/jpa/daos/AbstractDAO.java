@@ -15,35 +15,91 @@
  */
 package org.tkit.quarkus.jpa.daos;
 
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnit;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StaleStateException;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.diagnostics.SlowQueryLog;
 import org.tkit.quarkus.jpa.exceptions.ConstraintException;
 import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.metamodel.EntityDescriptor;
+import org.tkit.quarkus.jpa.metamodel.EntityDescriptors;
+import org.tkit.quarkus.jpa.export.ExportResult;
+import org.tkit.quarkus.jpa.export.ExportWriter;
+import org.tkit.quarkus.jpa.models.AbstractOutboxEvent;
 import org.tkit.quarkus.jpa.models.AbstractTraceableEntity;
+import org.tkit.quarkus.jpa.models.OutboxEventType;
+import org.tkit.quarkus.jpa.utils.ConstraintClassifier;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Default;
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
 import javax.persistence.LockModeType;
-import javax.persistence.PersistenceException;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The abstract EAO service class using an entity type.
  *
  * @param <T> the entity class {@link AbstractTraceableEntity}.
  */
+@TracedDAO
 public abstract class AbstractDAO<T> extends EntityService<T> {
 
     /**
@@ -61,11 +117,46 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     protected static final String HINT_LOAD_GRAPH = "javax.persistence.loadgraph";
 
     /**
-     * The entity manager.
+     * The entity manager of the persistence unit of the DAO.
      */
-    @Inject
     protected EntityManager em;
 
+    /**
+     * The entity managers of all persistence units.
+     */
+    @Inject
+    @Any
+    protected Instance<EntityManager> entityManagers;
+
+    /**
+     * The read replica request context.
+     */
+    @Inject
+    protected ReadReplicaContext readReplicaContext;
+
+    /**
+     * The entity manager of the read replica or {@code null}.
+     */
+    protected EntityManager readEm;
+
+    /**
+     * The transaction manager.
+     */
+    @Inject
+    protected TransactionManager transactionManager;
+
+    /**
+     * The transaction synchronization registry.
+     */
+    @Inject
+    protected TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /**
+     * The slow query log.
+     */
+    @Inject
+    protected SlowQueryLog slowQueryLog;
+
     /**
      * The entity class.
      */
@@ -81,6 +172,82 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     protected String idAttributeName = "id";
 
+    /**
+     * The ID attribute paths in the declaration order of the fields. The composite ID has more than one path.
+     */
+    protected List<String> idAttributes = List.of("id");
+
+    /**
+     * The composite ID mapped by the ID attributes of the entity ({@code @IdClass}) flag.
+     */
+    private boolean idClass;
+
+    /**
+     * The cache of the {@code @IdClass} fields.
+     */
+    private final Map<String, Field> idClassFields = new ConcurrentHashMap<>();
+
+    /**
+     * The persistence unit name or {@code null} for the default persistence unit.
+     */
+    protected String persistenceUnit;
+
+    /**
+     * The thread pool of the partitioned scan created on the first scan and shut down with the DAO bean.
+     */
+    private ExecutorService scanExecutor;
+
+    /**
+     * The entity descriptor created at build time or {@code null}.
+     */
+    protected EntityDescriptor entityDescriptor;
+
+    /**
+     * The optimistic lock retry statistics.
+     */
+    protected final RetryStatistics retryStatistics = new RetryStatistics();
+
+    /**
+     * The max depth of the cause chain.
+     */
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    /**
+     * The read replica configuration key.
+     */
+    private static final String CONFIG_READ_REPLICA_ENABLED = "tkit.jpa.read-replica.enabled";
+
+    /**
+     * The name of the default persistence unit.
+     */
+    private static final String DEFAULT_PERSISTENCE_UNIT = "<default>";
+
+    /**
+     * The transaction resource key of the deferred flush of the transaction.
+     */
+    private static final String DEFERRED_FLUSH_KEY = AbstractDAO.class.getName() + ".deferredFlush";
+
+    /**
+     * The transaction resource key of the registered flush synchronization.
+     */
+    private static final String FLUSH_SYNCHRONIZATION_KEY = AbstractDAO.class.getName() + ".flushSynchronization";
+
+    /**
+     * The default fetch size of the export.
+     */
+    public static final int DEFAULT_EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * The default fetch size of the partitioned scan.
+     */
+    public static final int DEFAULT_SCAN_FETCH_SIZE = 1000;
+
+    /**
+     * The class names of the integral ID types split by the value range in the partitioned scan.
+     */
+    private static final Set<String> INTEGRAL_ID_TYPES = Set.of(Long.class.getName(), long.class.getName(),
+            Integer.class.getName(), int.class.getName(), Short.class.getName(), short.class.getName());
+
     /**
      * Initialize the entity service bean.
      */
@@ -89,13 +256,59 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
         String serviceClass = getClass().getName();
         entityClass = getEntityClass();
         entityName = getEntityName();
+        entityDescriptor = EntityDescriptors.get(entityClass);
         String tmp = getIdAttributeName();
+        if ((tmp == null || tmp.isEmpty()) && entityDescriptor != null) {
+            tmp = entityDescriptor.getIdAttribute();
+        }
         if (tmp != null && !tmp.isEmpty()) {
             idAttributeName = tmp;
         }
+        if (entityDescriptor != null && !entityDescriptor.getIdAttributes().isEmpty()) {
+            idAttributes = entityDescriptor.getIdAttributes();
+            idClass = entityDescriptor.isIdClass();
+        } else {
+            idAttributes = List.of(idAttributeName);
+        }
+        persistenceUnit = getPersistenceUnit();
+        if (persistenceUnit == null) {
+            em = entityManagers.select(Default.Literal.INSTANCE).get();
+        } else {
+            em = entityManagers.select(new PersistenceUnit.PersistenceUnitLiteral(persistenceUnit)).get();
+            log.info("Entity service {} uses the persistence unit {}", serviceClass, persistenceUnit);
+        }
+        String readPersistenceUnit = getReadPersistenceUnit();
+        if (readPersistenceUnit != null && ConfigProvider.getConfig().getOptionalValue(CONFIG_READ_REPLICA_ENABLED, Boolean.class).orElse(true)) {
+            readEm = entityManagers.select(new PersistenceUnit.PersistenceUnitLiteral(readPersistenceUnit)).get();
+            log.info("Entity service {} reads from the persistence unit {}", serviceClass, readPersistenceUnit);
+        }
         log.info("Initialize the entity service {} for entity {}/{}/{}", serviceClass, entityClass, entityName, idAttributeName);
     }
 
+    /**
+     * Shuts down the thread pool of the partitioned scan.
+     */
+    @PreDestroy
+    public void destroy() {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = scanExecutor;
+            scanExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the descriptor of the entity created at build time.
+     *
+     * @return the entity descriptor or {@code null} if the entity class is not indexed.
+     */
+    public EntityDescriptor getEntityDescriptor() {
+        return entityDescriptor;
+    }
+
     /**
      * Gets the entity manager.
      *
@@ -106,14 +319,79 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     }
 
     /**
-     * Creates the page query of the DAO {@code <T>} type.
+     * Gets the name of the persistence unit of the DAO. The name is set at build time from the
+     * {@link DAOPersistenceUnit} annotation, the annotation is read at runtime for the DAO classes
+     * which are not enhanced.
+     *
+     * @return the name of the persistence unit or {@code null} for the default persistence unit.
+     */
+    protected String getPersistenceUnit() {
+        String name = getPersistenceUnitName();
+        if (name == null) {
+            DAOPersistenceUnit annotation = getClass().getAnnotation(DAOPersistenceUnit.class);
+            name = annotation == null ? null : annotation.value();
+        }
+        if (name == null || name.isEmpty() || DEFAULT_PERSISTENCE_UNIT.equals(name)) {
+            return null;
+        }
+        return name;
+    }
+
+    /**
+     * Gets the entity manager for the read operations. The read replica entity manager is returned if the read replica
+     * is configured, there is no active transaction and there was no write operation of the DAO in the current request.
+     *
+     * @return the entity manager for the read operations.
+     * @see ReadReplica
+     */
+    protected EntityManager getReadEntityManager() {
+        if (readEm == null || isTransactionActive() || isWrittenInRequest()) {
+            return getEntityManager();
+        }
+        return readEm;
+    }
+
+    /**
+     * Gets the name of the read replica persistence unit. The default implementation returns
+     * the value of the {@link ReadReplica} annotation of the DAO.
+     *
+     * @return the name of the read replica persistence unit or {@code null}.
+     */
+    protected String getReadPersistenceUnit() {
+        ReadReplica readReplica = getClass().getAnnotation(ReadReplica.class);
+        return readReplica == null ? null : readReplica.value();
+    }
+
+    /**
+     * Marks the current request as written, the next read operations of the request use the primary entity manager.
+     * The request is marked by the write of every DAO, so the read replica DAO of the same table reads from the primary
+     * after the write of the primary only DAO.
+     */
+    protected void markWrite() {
+        if (Arc.container().requestContext().isActive()) {
+            readReplicaContext.markWrite();
+        }
+    }
+
+    /**
+     * Returns {@code true} if there was the write operation in the current request.
+     *
+     * @return {@code true} if there was the write operation in the current request.
+     */
+    private boolean isWrittenInRequest() {
+        return Arc.container().requestContext().isActive() && readReplicaContext.isWritten();
+    }
+
+    /**
+     * Creates the page query of the DAO {@code <T>} type. The query is executed by the read entity manager,
+     * the DAO with the read replica should build the query with {@link #readCriteriaQuery()}.
      *
      * @param query the criteria query
      * @param page  the page for the query
      * @return the new page query instance
      */
     public PagedQuery<T> createPageQuery(CriteriaQuery<T> query, Page page) {
-        return new PagedQuery<>(em, query, page, idAttributeName);
+        return new PagedQuery<>(getReadEntityManager(), query, page, idAttributes).slowQueryLog(slowQueryLog, entityName);
     }
 
     /**
@@ -123,9 +401,10 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      * @return the new page query instance
      */
     public PagedQuery<T> createPageQuery(Page page) {
-        CriteriaQuery<T> cq = criteriaQuery();
+        EntityManager em = getReadEntityManager();
+        CriteriaQuery<T> cq = em.getCriteriaBuilder().createQuery(entityClass);
         cq.from(entityClass);
-        return createPageQuery(cq, page);
+        return new PagedQuery<>(em, cq, page, idAttributes).slowQueryLog(slowQueryLog, entityName);
     }
 
     /**
@@ -137,7 +416,7 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      * @return the new page query instance
      */
     public <E> PagedQuery<E> createPageQueryCustom(CriteriaQuery<E> query, Page page) {
-        return new PagedQuery<>(em, query, page, idAttributeName);
+        return new PagedQuery<>(getReadEntityManager(), query, page, idAttributes).slowQueryLog(slowQueryLog, entityName);
     }
 
     /**
@@ -159,19 +438,531 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     public Stream<T> findAll(EntityGraph<?> entityGraph) throws DAOException {
         try {
-            CriteriaQuery<T> cq = criteriaQuery();
+            EntityManager em = getReadEntityManager();
+            CriteriaQuery<T> cq = em.getCriteriaBuilder().createQuery(entityClass);
             cq.from(entityClass);
             cq.distinct(true);
-            TypedQuery<T> query = getEntityManager().createQuery(cq);
+            TypedQuery<T> query = em.createQuery(cq);
             if (entityGraph != null) {
                 query.setHint(HINT_LOAD_GRAPH, entityGraph);
             }
-            return query.getResultStream();
+            long start = startQuery();
+            Stream<T> result = query.getResultStream();
+            recordQuery("findAll", query, start, -1);
+            return result;
         } catch (Exception e) {
             throw new DAOException(Errors.FIND_ALL_ENTITIES_FAILED, e, entityName, entityGraph == null ? null : entityGraph.getName());
         }
     }
 
+    /**
+     * Exports all entities.
+     *
+     * @param out    the output stream.
+     * @param writer the export writer.
+     * @return the export result.
+     * @throws DAOException if the method fails.
+     * @see #export(CriteriaQuery, OutputStream, ExportWriter, int)
+     */
+    public ExportResult export(OutputStream out, ExportWriter<T> writer) throws DAOException {
+        CriteriaQuery<T> cq = criteriaQuery();
+        cq.from(entityClass);
+        return export(cq, out, writer, DEFAULT_EXPORT_FETCH_SIZE);
+    }
+
+    /**
+     * Exports the rows of the query.
+     *
+     * @param query  the criteria query of the entities or projections.
+     * @param out    the output stream.
+     * @param writer the export writer.
+     * @param <R>    the type of the row.
+     * @return the export result.
+     * @throws DAOException if the method fails.
+     * @see #export(CriteriaQuery, OutputStream, ExportWriter, int)
+     */
+    public <R> ExportResult export(CriteriaQuery<R> query, OutputStream out, ExportWriter<R> writer) throws DAOException {
+        return export(query, out, writer, DEFAULT_EXPORT_FETCH_SIZE);
+    }
+
+    /**
+     * Exports the rows of the query.
+     * <p>
+     * The rows are read by the forward-only server side cursor in the new read-only transaction and written one by one
+     * to the export writer. The persistence context is cleared after each {@code fetchSize} rows, the memory used by the
+     * export does not depend on the number of the rows.
+     *
+     * @param query     the criteria query of the entities or projections.
+     * @param out       the output stream.
+     * @param writer    the export writer.
+     * @param fetchSize the fetch size of the cursor.
+     * @param <R>       the type of the row.
+     * @return the export result.
+     * @throws DAOException if the method fails.
+     */
+    @Transactional(value = Transactional.TxType.REQUIRES_NEW, rollbackOn = DAOException.class)
+    public <R> ExportResult export(CriteriaQuery<R> query, OutputStream out, ExportWriter<R> writer, int fetchSize) throws DAOException {
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        EntityManager em = getEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            org.hibernate.query.Query<R> q = em.createQuery(query).unwrap(org.hibernate.query.Query.class);
+            q.setFetchSize(fetchSize);
+            q.setReadOnly(true);
+            Exception failure = null;
+            try (ScrollableResults results = q.scroll(ScrollMode.FORWARD_ONLY)) {
+                writer.open(out);
+                while (results.next()) {
+                    Object[] tmp = results.get();
+                    @SuppressWarnings("unchecked")
+                    R row = (R) (tmp.length == 1 ? tmp[0] : tmp);
+                    writer.write(row);
+                    if (++rows % fetchSize == 0) {
+                        em.clear();
+                    }
+                }
+            } catch (Exception e) {
+                failure = e;
+                throw e;
+            } finally {
+                // the writer is closed also on failure, the close failure does not hide the export failure
+                try {
+                    writer.close();
+                } catch (IOException ex) {
+                    if (failure == null) {
+                        throw ex;
+                    }
+                    failure.addSuppressed(ex);
+                }
+            }
+        } catch (Exception e) {
+            throw new DAOException(Errors.EXPORT_FAILED, e, entityName, rows);
+        }
+        ExportResult result = new ExportResult(rows, System.currentTimeMillis() - start);
+        log.info("Export of the entity {} finished {}", entityName, result);
+        return result;
+    }
+
+    /**
+     * Scans all entities in parallel partitions.
+     *
+     * @param partitions  the number of partitions.
+     * @param parallelism the number of the parallel workers.
+     * @param processor   the processor of the partition stream.
+     * @param combiner    the combiner of the partition results.
+     * @param <R>         the type of the result.
+     * @return the scan result.
+     * @throws DAOException if the method fails.
+     * @see #scan(int, int, Function, BinaryOperator, int)
+     */
+    public <R> ScanResult<R> scan(int partitions, int parallelism, Function<Stream<T>, R> processor, BinaryOperator<R> combiner) throws DAOException {
+        return scan(partitions, parallelism, processor, combiner, DEFAULT_SCAN_FETCH_SIZE);
+    }
+
+    /**
+     * Scans all entities in parallel partitions.
+     * <p>
+     * The ID space is split into the ranges of the same size by the boundary IDs of the ordered ID attribute. Each partition
+     * is processed in the own transaction, with the own persistence context and the own database connection. The partition
+     * stream reads the entities by the forward-only cursor and the persistence context is cleared after each
+     * {@code fetchSize} entities, the entities are read-only and must not be modified. The partitions are processed
+     * by {@code parallelism} workers in the thread pool of the DAO, the pool is created with the first scan and shut down
+     * with the DAO bean.
+     * <p>
+     * The results of the successful partitions are reduced by the combiner, the failure of the partition does not stop
+     * other partitions and is returned in the {@link ScanResult#getFailures()}. The parallelism should not exceed
+     * the size of the connection pool.
+     *
+     * @param partitions  the number of partitions.
+     * @param parallelism the number of the parallel workers.
+     * @param processor   the processor of the partition stream.
+     * @param combiner    the combiner of the partition results.
+     * @param fetchSize   the fetch size of the cursor.
+     * @param <R>         the type of the result.
+     * @return the scan result.
+     * @throws DAOException if the method fails.
+     * @see #scan(int, int, Function, BinaryOperator, int, ExecutorService)
+     */
+    public <R> ScanResult<R> scan(int partitions, int parallelism, Function<Stream<T>, R> processor, BinaryOperator<R> combiner, int fetchSize) throws DAOException {
+        return scan(partitions, parallelism, processor, combiner, fetchSize, scanExecutor());
+    }
+
+    /**
+     * Scans all entities in parallel partitions with the executor, for example the {@code ManagedExecutor}.
+     * The executor is not shut down by the scan.
+     *
+     * @param partitions  the number of partitions.
+     * @param parallelism the number of the parallel workers.
+     * @param processor   the processor of the partition stream.
+     * @param combiner    the combiner of the partition results.
+     * @param fetchSize   the fetch size of the cursor.
+     * @param executor    the executor of the workers.
+     * @param <R>         the type of the result.
+     * @return the scan result.
+     * @throws DAOException if the method fails.
+     * @see #scan(int, int, Function, BinaryOperator, int)
+     */
+    @SuppressWarnings("unchecked")
+    public <R> ScanResult<R> scan(int partitions, int parallelism, Function<Stream<T>, R> processor, BinaryOperator<R> combiner,
+                                  int fetchSize, ExecutorService executor) throws DAOException {
+        List<Object> bounds;
+        try {
+            bounds = isTransactionActive() ? partitionBounds(partitions) : inTransaction(() -> partitionBounds(partitions));
+        } catch (Exception e) {
+            throw new DAOException(Errors.PARTITIONED_SCAN_FAILED, e, entityName, partitions);
+        }
+        int count = bounds.size() + 1;
+        int workers = Math.max(1, Math.min(parallelism, count));
+        Object[] results = new Object[count];
+        Throwable[] errors = new Throwable[count];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(workers);
+        try {
+            for (int w = 0; w < workers; w++) {
+                // each worker takes the next partition, at most parallelism partitions run at the same time
+                futures.add(executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < count) {
+                        Object lower = i == 0 ? null : bounds.get(i - 1);
+                        Object upper = i < bounds.size() ? bounds.get(i) : null;
+                        try {
+                            results[i] = inTransaction(() -> scanPartition(lower, upper, processor, fetchSize));
+                        } catch (Exception | Error e) {
+                            log.warn("Partition {}/{} of the entity {} failed", i, count, entityName, e);
+                            errors[i] = e;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new DAOException(Errors.PARTITIONED_SCAN_FAILED, e, entityName, partitions);
+        } catch (Exception e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new DAOException(Errors.PARTITIONED_SCAN_FAILED, e, entityName, partitions);
+        }
+        R result = null;
+        Map<Integer, Throwable> failures = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            if (errors[i] != null) {
+                failures.put(i, errors[i]);
+            } else {
+                R tmp = (R) results[i];
+                result = result == null ? tmp : (tmp == null ? result : combiner.apply(result, tmp));
+            }
+        }
+        return new ScanResult<>(result, count, failures);
+    }
+
+    /**
+     * Gets the thread pool of the partitioned scan. The pool is created on the first call.
+     *
+     * @return the thread pool of the partitioned scan.
+     */
+    private synchronized ExecutorService scanExecutor() {
+        if (scanExecutor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            scanExecutor = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "tkit-jpa-scan-" + entityName + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scanExecutor;
+    }
+
+    /**
+     * Finds the boundary IDs of the partitions. The boundary is the first ID of the partition.
+     * <p>
+     * The integral single ID (the ID type of the build time {@link EntityDescriptor}) is split by the value range of one
+     * {@code min/max} query. The other IDs and the entities without the descriptor (including the
+     * composite ID) are split in the database by the {@code ntile} window function over the ordered ID columns, only
+     * the first ID of each partition is returned.
+     *
+     * @param partitions the number of partitions.
+     * @return the ordered list of the boundary IDs.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> partitionBounds(int partitions) {
+        if (partitions < 2) {
+            return new ArrayList<>();
+        }
+        EntityManager em = getEntityManager();
+        if (idAttributes.size() == 1 && entityDescriptor != null && INTEGRAL_ID_TYPES.contains(entityDescriptor.getIdType())) {
+            return rangeBounds(partitions, entityDescriptor.getIdType());
+        }
+        AbstractEntityPersister persister = (AbstractEntityPersister) em.unwrap(SessionImplementor.class)
+                .getFactory().getMetamodel().entityPersister(entityClass);
+        StringBuilder columns = new StringBuilder();
+        StringBuilder aliases = new StringBuilder();
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < idAttributes.size(); i++) {
+            String separator = i == 0 ? "" : ", ";
+            String column = persister.getPropertyColumnNames(idAttributes.get(i))[0];
+            columns.append(separator).append(column).append(" AS c").append(i);
+            aliases.append(separator).append('c').append(i);
+            order.append(separator).append(column);
+        }
+        // the first row of each tile except the first one is the boundary, only the boundaries are transferred
+        String sql = "SELECT " + aliases + " FROM ("
+                + "SELECT " + aliases + ", tile, row_number() OVER (PARTITION BY tile ORDER BY " + aliases + ") AS rn FROM ("
+                + "SELECT " + columns + ", ntile(" + partitions + ") OVER (ORDER BY " + order + ") AS tile"
+                + " FROM " + persister.getTableName() + ") t1) t2"
+                + " WHERE rn = 1 AND tile > 1 ORDER BY " + aliases;
+        NativeQuery<Object> q = em.createNativeQuery(sql).unwrap(NativeQuery.class);
+        for (int i = 0; i < idAttributes.size(); i++) {
+            q.addScalar("c" + i, persister.getPropertyType(idAttributes.get(i)));
+        }
+        q.setReadOnly(true);
+        return new ArrayList<>(q.getResultList());
+    }
+
+    /**
+     * Finds the boundary IDs of the partitions of the integral ID by the value range of the IDs.
+     *
+     * @param partitions the number of partitions.
+     * @param type       the class name of the ID type.
+     * @return the ordered list of the boundary IDs.
+     */
+    private List<Object> rangeBounds(int partitions, String type) {
+        List<Object> bounds = new ArrayList<>();
+        EntityManager em = getEntityManager();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Path<Number> id = attributePath(cq.from(entityClass), idAttributes.get(0));
+        cq.multiselect(cb.min(id), cb.max(id));
+        Object[] range = em.createQuery(cq).getSingleResult();
+        if (range[0] == null) {
+            return bounds;
+        }
+        BigInteger min = BigInteger.valueOf(((Number) range[0]).longValue());
+        BigInteger span = BigInteger.valueOf(((Number) range[1]).longValue()).subtract(min).add(BigInteger.ONE);
+        BigInteger count = BigInteger.valueOf(partitions);
+        for (int i = 1; i < partitions; i++) {
+            long value = min.add(span.multiply(BigInteger.valueOf(i)).divide(count)).longValue();
+            Object bound = integralId(value, type);
+            if (!bound.equals(range[0]) && (bounds.isEmpty() || !bounds.get(bounds.size() - 1).equals(bound))) {
+                bounds.add(bound);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Converts the value to the integral ID type.
+     *
+     * @param value the value.
+     * @param type  the class name of the ID type.
+     * @return the ID value.
+     */
+    private static Object integralId(long value, String type) {
+        if (Integer.class.getName().equals(type) || int.class.getName().equals(type)) {
+            return (int) value;
+        }
+        if (Short.class.getName().equals(type) || short.class.getName().equals(type)) {
+            return (short) value;
+        }
+        return value;
+    }
+
+    /**
+     * Processes the partition of the entities.
+     *
+     * @param lower     the lower inclusive ID, the array of the key columns of the composite ID or {@code null}.
+     * @param upper     the upper exclusive ID, the array of the key columns of the composite ID or {@code null}.
+     * @param processor the processor of the partition stream.
+     * @param fetchSize the fetch size of the cursor.
+     * @param <R>       the type of the result.
+     * @return the result of the partition.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R scanPartition(Object lower, Object upper, Function<Stream<T>, R> processor, int fetchSize) {
+        EntityManager em = getEntityManager();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> cq = criteriaQuery();
+        List<Path<Object>> ids = idPaths(cq.from(entityClass));
+        List<Predicate> predicates = new ArrayList<>(2);
+        if (lower != null) {
+            predicates.add(keyset(cb, ids, keyValues(lower), true));
+        }
+        if (upper != null) {
+            predicates.add(keyset(cb, ids, keyValues(upper), false));
+        }
+        cq.where(predicates.toArray(new Predicate[0]));
+
+        org.hibernate.query.Query<T> q = em.createQuery(cq).unwrap(org.hibernate.query.Query.class);
+        q.setFetchSize(fetchSize);
+        q.setReadOnly(true);
+        ScrollableResults results = q.scroll(ScrollMode.FORWARD_ONLY);
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            private long count;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (count > 0 && count % fetchSize == 0) {
+                    em.clear();
+                }
+                if (!results.next()) {
+                    return false;
+                }
+                count++;
+                action.accept((T) results.get(0));
+                return true;
+            }
+        };
+        try (Stream<T> stream = StreamSupport.stream(spliterator, false).onClose(results::close)) {
+            return processor.apply(stream);
+        }
+    }
+
+    /**
+     * Gets the ID attribute paths of the entity root in the key order.
+     *
+     * @param root the entity root.
+     * @return the list of the ID paths.
+     */
+    protected List<Path<Object>> idPaths(From<?, ?> root) {
+        List<Path<Object>> result = new ArrayList<>(idAttributes.size());
+        for (String attribute : idAttributes) {
+            result.add(attributePath(root, attribute));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the ID equal predicate.
+     *
+     * @param cb   the criteria builder.
+     * @param root the entity root.
+     * @param id   the entity ID.
+     * @return the ID equal predicate.
+     */
+    protected Predicate idEqual(CriteriaBuilder cb, From<?, ?> root, Object id) {
+        if (!idClass) {
+            return cb.equal(root.get(idAttributeName), id);
+        }
+        List<Predicate> predicates = new ArrayList<>(idAttributes.size());
+        for (String attribute : idAttributes) {
+            predicates.add(cb.equal(root.get(attribute), idClassValue(id, attribute)));
+        }
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Creates the ID in predicate. The single and the embedded ID use the {@code IN} predicate,
+     * the embedded ID is rendered as the row-value {@code (a, b) in ((?, ?), ...)} on the databases which support it.
+     * The {@code @IdClass} ID is the disjunction of the ID equal predicates.
+     *
+     * @param cb   the criteria builder.
+     * @param root the entity root.
+     * @param ids  the entity IDs.
+     * @return the ID in predicate.
+     */
+    protected Predicate idIn(CriteriaBuilder cb, From<?, ?> root, Collection<?> ids) {
+        if (!idClass) {
+            return root.get(idAttributeName).in(ids);
+        }
+        List<Predicate> predicates = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            predicates.add(idEqual(cb, root, id));
+        }
+        return cb.or(predicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Creates the keyset predicate of the ID paths. For the composite ID {@code (a, b)} the lower bound is
+     * {@code a > x or (a = x and b >= y)} and the upper bound is {@code a < x or (a = x and b < y)}.
+     *
+     * @param cb     the criteria builder.
+     * @param paths  the ID paths.
+     * @param values the ID values in the key order.
+     * @param lower  {@code true} for the lower inclusive bound, {@code false} for the upper exclusive bound.
+     * @return the keyset predicate.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keyset(CriteriaBuilder cb, List<Path<Object>> paths, Object[] values, boolean lower) {
+        List<Predicate> or = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            List<Predicate> and = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                and.add(cb.equal(paths.get(j), values[j]));
+            }
+            Path<Comparable> path = (Path) paths.get(i);
+            Comparable value = (Comparable) values[i];
+            if (!lower) {
+                and.add(cb.lessThan(path, value));
+            } else if (i == paths.size() - 1) {
+                and.add(cb.greaterThanOrEqualTo(path, value));
+            } else {
+                and.add(cb.greaterThan(path, value));
+            }
+            or.add(cb.and(and.toArray(new Predicate[0])));
+        }
+        return or.size() == 1 ? or.get(0) : cb.or(or.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Gets the key values of the partition bound.
+     *
+     * @param bound the single ID or the array of the key columns of the composite ID.
+     * @return the key values.
+     */
+    private static Object[] keyValues(Object bound) {
+        return bound instanceof Object[] ? (Object[]) bound : new Object[]{bound};
+    }
+
+    /**
+     * Gets the value of the attribute of the {@code @IdClass} ID.
+     *
+     * @param id        the {@code @IdClass} instance.
+     * @param attribute the ID attribute name.
+     * @return the attribute value.
+     */
+    private Object idClassValue(Object id, String attribute) {
+        Field field = idClassFields.computeIfAbsent(id.getClass().getName() + "#" + attribute, k -> {
+            Class<?> c = id.getClass();
+            while (c != null && c != Object.class) {
+                try {
+                    Field f = c.getDeclaredField(attribute);
+                    f.setAccessible(true);
+                    return f;
+                } catch (NoSuchFieldException ex) {
+                    c = c.getSuperclass();
+                }
+            }
+            throw new IllegalArgumentException("The ID class " + id.getClass().getName() + " has no attribute " + attribute);
+        });
+        try {
+            return field.get(id);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Gets the path of the attribute. The nested attributes are separated by dot, for example {@code id.code}.
+     *
+     * @param from      the path.
+     * @param attribute the attribute path.
+     * @param <X>       the type of the attribute.
+     * @return the attribute path.
+     */
+    static <X> Path<X> attributePath(Path<?> from, String attribute) {
+        Path<?> path = from;
+        for (String name : attribute.split("\\.")) {
+            path = path.get(name);
+        }
+        @SuppressWarnings("unchecked")
+        Path<X> result = (Path<X>) path;
+        return result;
+    }
+
     /**
      * Finds the entity by ID.
      *
@@ -182,7 +973,10 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     @Transactional(value = Transactional.TxType.SUPPORTS, rollbackOn = DAOException.class)
     public T findById(final Object id) throws DAOException {
         try {
-            return getEntityManager().find(entityClass, id);
+            long start = startQuery();
+            T result = getReadEntityManager().find(entityClass, id);
+            recordQuery("findById", null, start, result == null ? 0 : 1);
+            return result;
         } catch (Exception e) {
             throw new DAOException(Errors.FIND_ENTITY_BY_ID_FAILED, e, entityName, id);
         }
@@ -199,7 +993,7 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     @Transactional(value = Transactional.TxType.SUPPORTS, rollbackOn = DAOException.class)
     public T findById(Object id, EntityGraph<?> entityGraph) throws DAOException {
         try {
-            return getEntityManager().find(entityClass, id, Collections.singletonMap(HINT_LOAD_GRAPH, entityGraph));
+            return getReadEntityManager().find(entityClass, id, Collections.singletonMap(HINT_LOAD_GRAPH, entityGraph));
         } catch (Exception e) {
             throw new DAOException(Errors.FIND_ENTITY_BY_ID_FAILED, e, entityName, id, entityGraph == null ? null : entityGraph.getName());
         }
@@ -228,13 +1022,18 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     public Stream<T> findByIds(List<Object> ids, EntityGraph<?> entityGraph) throws DAOException {
         try {
             if (ids != null && !ids.isEmpty()) {
-                CriteriaQuery<T> cq = criteriaQuery();
-                cq.where(cq.from(entityClass).get(idAttributeName).in(ids));
-                TypedQuery<T> query = getEntityManager().createQuery(cq);
+                EntityManager em = getReadEntityManager();
+                CriteriaBuilder cb = em.getCriteriaBuilder();
+                CriteriaQuery<T> cq = cb.createQuery(entityClass);
+                cq.where(idIn(cb, cq.from(entityClass), ids));
+                TypedQuery<T> query = em.createQuery(cq);
                 if (entityGraph != null) {
                     query.setHint(HINT_LOAD_GRAPH, entityGraph);
                 }
-                return query.getResultStream();
+                long start = startQuery();
+                Stream<T> result = query.getResultStream();
+                recordQuery("findByIds", query, start, -1);
+                return result;
             }
             return Stream.empty();
         } catch (Exception e) {
@@ -243,7 +1042,95 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     }
 
     /**
-     * Updates the entity.
+     * Finds the entities by IDs in the order of the IDs.
+     * <p>
+     * The entities managed by the persistence context are not loaded from the database, the others are loaded
+     * with one query.
+     *
+     * @param ids the list of IDs.
+     * @return the list of entities in the order of the IDs with {@code null} for the entities that do not exist.
+     * @throws DAOException if the method fails.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> findByIdsInOrder(List<?> ids) throws DAOException {
+        try {
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return getReadEntityManager().unwrap(Session.class)
+                    .byMultipleIds(entityClass)
+                    .enableSessionCheck(true)
+                    .withBatchSize(ids.size())
+                    .multiLoad((List<Serializable>) ids);
+        } catch (Exception e) {
+            throw new DAOException(Errors.FAILED_TO_GET_ENTITY_BY_IDS, e, entityName);
+        }
+    }
+
+    /**
+     * Creates the batch loader of the entities.
+     *
+     * @param maxBatchSize the max number of IDs loaded with one query.
+     * @return the new batch loader.
+     * @see EntityBatchLoader
+     */
+    public EntityBatchLoader<T> createBatchLoader(int maxBatchSize) {
+        return new EntityBatchLoader<>(this, maxBatchSize);
+    }
+
+    /**
+     * Warms up the standard query shapes of the DAO: the page and count query, {@code findById} and
+     * {@code findByIds}. The queries are compiled to the Hibernate query plan cache and executed with the first
+     * entity ID of the table in the read-only transaction, the shapes which need the ID are skipped if the table
+     * is empty or the entity has the {@code @IdClass} ID. The page query is ordered by the entity ID.
+     *
+     * @param iterations the number of the additional synthetic executions.
+     * @throws DAOException if the method fails.
+     * @see org.tkit.quarkus.jpa.warmup.DAOWarmup
+     */
+    @Transactional(value = Transactional.TxType.REQUIRES_NEW, rollbackOn = DAOException.class)
+    public void warmup(int iterations) throws DAOException {
+        try {
+            EntityManager em = getEntityManager();
+            em.unwrap(Session.class).setDefaultReadOnly(true);
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            List<Object> sample = Collections.emptyList();
+            if (!idClass) {
+                CriteriaQuery<Object> idQuery = cb.createQuery(Object.class);
+                idQuery.select(idQuery.from(entityClass).get(idAttributeName));
+                sample = em.createQuery(idQuery).setMaxResults(1).getResultList();
+            }
+            for (int i = 0; i <= iterations; i++) {
+                CriteriaQuery<T> cq = criteriaQuery();
+                cq.orderBy(idPaths(cq.from(entityClass)).stream().map(cb::asc).collect(Collectors.toList()));
+                createPageQuery(cq, Page.of(0, 1)).getPageResult().getStream().count();
+                if (!sample.isEmpty()) {
+                    findById(sample.get(0));
+                    findByIds(sample).count();
+                }
+                em.clear();
+            }
+        } catch (Exception e) {
+            throw new DAOException(Errors.WARMUP_FAILED, e, entityName);
+        }
+    }
+
+    /**
+     * Creates the write-behind queue of the entities. The worker thread of the queue is started,
+     * close the queue on the shutdown of the application.
+     *
+     * @param capacity      the capacity of the queue.
+     * @param batchSize     the max batch size.
+     * @param flushInterval the max time in milliseconds the entity waits in the queue for the full batch.
+     * @return the new write-behind queue.
+     * @see WriteBehindQueue
+     */
+    public WriteBehindQueue<T> createWriteBehindQueue(int capacity, int batchSize, long flushInterval) {
+        return new WriteBehindQueue<>(this, capacity, batchSize, flushInterval);
+    }
+
+    /**
+     * Updates the entity. The managed entity is flushed without the merge.
      *
      * @param entity the entity.
      * @return the updated entity.
@@ -251,15 +1138,188 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public T update(T entity) throws DAOException {
+        markWrite();
         try {
-            T result = getEntityManager().merge(entity);
-            getEntityManager().flush();
+            T result = entity;
+            if (!getEntityManager().contains(entity)) {
+                result = getEntityManager().merge(entity);
+            }
+            appendOutboxEvent(OutboxEventType.UPDATED, result);
+            flushIfRequired();
             return result;
         } catch (Exception e) {
             throw handleConstraint(e, Errors.MERGE_ENTITY_FAILED);
         }
     }
 
+    /**
+     * Updates the detached entity. Only the changed attributes of the detached entity are copied
+     * to the managed entity.
+     * <p>
+     * The changed attributes are resolved by the dirty tracking of the enhanced entity. The version of the detached
+     * entity, if set, has to match the version of the managed entity, otherwise the {@link javax.persistence.OptimisticLockException}
+     * is thrown. The identifier, the version and the collection attributes are not copied. The entity which is not
+     * enhanced is merged.
+     *
+     * @param entity the detached entity.
+     * @return the updated managed entity.
+     * @throws DAOException if the method fails.
+     */
+    @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
+    public T updateDetached(T entity) throws DAOException {
+        markWrite();
+        try {
+            EntityManager em = getEntityManager();
+            if (em.contains(entity)) {
+                appendOutboxEvent(OutboxEventType.UPDATED, entity);
+                flushIfRequired();
+                return entity;
+            }
+            if (!(entity instanceof SelfDirtinessTracker)) {
+                T result = em.merge(entity);
+                appendOutboxEvent(OutboxEventType.UPDATED, result);
+                flushIfRequired();
+                return result;
+            }
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            EntityPersister persister = session.getEntityPersister(entityName, entity);
+            Object id = persister.getIdentifier(entity, session);
+            T managed = em.find(entityClass, id);
+            if (managed == null) {
+                throw new EntityNotFoundException("Entity " + entityName + " with ID " + id + " not found");
+            }
+            int versionIndex = -1;
+            if (entityDescriptor == null ? persister.isVersioned() : entityDescriptor.isVersioned()) {
+                versionIndex = persister.getVersionProperty();
+                Object version = persister.getVersion(entity);
+                if (version != null && !persister.getVersionType().isEqual(version, persister.getVersion(managed))) {
+                    throw new OptimisticLockException("Entity " + entityName + " with ID " + id + " was updated by another transaction", null, entity);
+                }
+            }
+            for (String name : ((SelfDirtinessTracker) entity).$$_hibernate_getDirtyAttributes()) {
+                Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull(name);
+                if (index != null && index != versionIndex && !persister.getPropertyTypes()[index].isCollectionType()) {
+                    persister.setPropertyValue(managed, index, persister.getPropertyValue(entity, index));
+                }
+            }
+            appendOutboxEvent(OutboxEventType.UPDATED, managed);
+            flushIfRequired();
+            return managed;
+        } catch (Exception e) {
+            throw handleConstraint(e, Errors.MERGE_ENTITY_FAILED);
+        }
+    }
+
+    /**
+     * Updates the entity with the default retry policy {@link RetryPolicy#DEFAULT}.
+     *
+     * @param id       the entity ID.
+     * @param mutation the mutation of the entity.
+     * @return the updated entity or {@code null} if the entity does not exist.
+     * @throws DAOException if the method fails.
+     * @see #updateWithRetry(Object, Consumer, RetryPolicy)
+     */
+    public T updateWithRetry(Object id, Consumer<T> mutation) throws DAOException {
+        return updateWithRetry(id, mutation, RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * Updates the entity and retries the update on the optimistic lock failure.
+     * <p>
+     * Each attempt runs in the new transaction, loads the entity, applies the mutation and commits the transaction.
+     * If the attempt fails on the optimistic lock the mutation is re-applied to the reloaded entity after the
+     * delay of the retry policy. If the method is called in the active transaction the update is executed
+     * in this transaction without retry.
+     *
+     * @param id       the entity ID.
+     * @param mutation the mutation of the entity.
+     * @param policy   the retry policy.
+     * @return the updated entity or {@code null} if the entity does not exist.
+     * @throws DAOException if the method fails.
+     * @see #getRetryStatistics()
+     */
+    public T updateWithRetry(Object id, Consumer<T> mutation, RetryPolicy policy) throws DAOException {
+        markWrite();
+        retryStatistics.execution();
+        if (isTransactionActive()) {
+            retryStatistics.attempt();
+            try {
+                return updateAttempt(id, mutation);
+            } catch (Exception e) {
+                if (isOptimisticLock(e)) {
+                    retryStatistics.conflict();
+                }
+                retryStatistics.failure();
+                throw handleConstraint(e, Errors.MERGE_ENTITY_FAILED);
+            }
+        }
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            retryStatistics.attempt();
+            try {
+                return inTransaction(() -> updateAttempt(id, mutation));
+            } catch (Exception e) {
+                if (!isOptimisticLock(e)) {
+                    retryStatistics.failure();
+                    throw handleConstraint(e, Errors.MERGE_ENTITY_FAILED);
+                }
+                retryStatistics.conflict();
+                if (attempt >= policy.maxAttempts()) {
+                    retryStatistics.failure();
+                    throw new DAOException(Errors.OPTIMISTIC_LOCK_RETRY_FAILED, e, entityName, id, attempt);
+                }
+                long delay = policy.delay(attempt);
+                log.debug("Optimistic lock conflict of the entity {}/{} attempt {}, retry in {} ms", entityName, id, attempt, delay);
+                sleep(delay, id);
+                retryStatistics.retry();
+            }
+        }
+    }
+
+    /**
+     * Gets the optimistic lock retry statistics of this DAO.
+     *
+     * @return the optimistic lock retry statistics.
+     */
+    public RetryStatistics getRetryStatistics() {
+        return retryStatistics;
+    }
+
+    /**
+     * The update attempt.
+     *
+     * @param id       the entity ID.
+     * @param mutation the mutation of the entity.
+     * @return the updated entity or {@code null} if the entity does not exist.
+     */
+    private T updateAttempt(Object id, Consumer<T> mutation) {
+        T entity = getEntityManager().find(entityClass, id);
+        if (entity != null) {
+            mutation.accept(entity);
+            appendOutboxEvent(OutboxEventType.UPDATED, entity);
+            getEntityManager().flush();
+        }
+        return entity;
+    }
+
+    /**
+     * Sleeps the retry delay.
+     *
+     * @param delay the delay in milliseconds.
+     * @param id    the entity ID.
+     */
+    private void sleep(long delay, Object id) {
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new DAOException(Errors.OPTIMISTIC_LOCK_RETRY_FAILED, ie, entityName, id);
+            }
+        }
+    }
+
     /**
      * Updates the entities.
      *
@@ -269,12 +1329,17 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public Stream<T> update(Stream<T> entities) throws DAOException {
+        markWrite();
         if (entities != null) {
             Iterator<T> it = entities.iterator();
             if (it.hasNext()) {
                 try {
                     Stream.Builder<T> builder = Stream.builder();
-                    it.forEachRemaining(e -> builder.add(getEntityManager().merge(e)));
+                    it.forEachRemaining(e -> {
+                        T result = getEntityManager().merge(e);
+                        appendOutboxEvent(OutboxEventType.UPDATED, result);
+                        builder.add(result);
+                    });
                     getEntityManager().flush();
                     return builder.build();
                 } catch (Exception e) {
@@ -309,9 +1374,11 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public T create(T entity) throws DAOException {
+        markWrite();
         try {
             getEntityManager().persist(entity);
-            getEntityManager().flush();
+            appendOutboxEvent(OutboxEventType.CREATED, entity);
+            flushIfRequired();
         } catch (Exception e) {
             throw handleConstraint(e, Errors.PERSIST_ENTITY_FAILED);
         }
@@ -343,17 +1410,20 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public Stream<T> create(Stream<T> entities) throws DAOException {
+        markWrite();
         if (entities != null) {
             Iterator<T> it = entities.iterator();
             if (it.hasNext()) {
                 try {
-                    Stream.Builder<T> result = Stream.builder();
+                    List<T> result = new ArrayList<>();
                     it.forEachRemaining(e -> {
                         getEntityManager().persist(e);
                         result.add(e);
                     });
+                    // the outbox events are inserted after the entities and do not split the JDBC batch of the entities
+                    result.forEach(e -> appendOutboxEvent(OutboxEventType.CREATED, e));
                     getEntityManager().flush();
-                    return result.build();
+                    return result.stream();
                 } catch (Exception e) {
                     throw handleConstraint(e, Errors.PERSIST_ENTITY_FAILED);
                 }
@@ -370,9 +1440,11 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public void delete(T entity) throws DAOException {
+        markWrite();
         try {
+            appendOutboxEvent(OutboxEventType.DELETED, entity);
             getEntityManager().remove(entity);
-            getEntityManager().flush();
+            flushIfRequired();
         } catch (Exception e) {
             throw handleConstraint(e, Errors.DELETE_ENTITY_FAILED);
         }
@@ -401,10 +1473,14 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public void delete(Stream<T> entities) throws DAOException {
+        markWrite();
         if (entities != null) {
             Iterator<T> it = entities.iterator();
             if (it.hasNext()) {
-                it.forEachRemaining(getEntityManager()::remove);
+                it.forEachRemaining(e -> {
+                    appendOutboxEvent(OutboxEventType.DELETED, e);
+                    getEntityManager().remove(e);
+                });
                 getEntityManager().flush();
             }
         }
@@ -430,13 +1506,14 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     }
 
     /**
-     * Removes all entities. Check on existence is made.
+     * Removes all entities. Check on existence is made. No outbox event is written.
      *
      * @return the number of deleted entities.
      * @throws DAOException if the method fails.
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public int deleteQueryAll() throws DAOException {
+        markWrite();
         try {
             CriteriaDelete<T> cq = deleteQuery();
             cq.from(entityClass);
@@ -449,7 +1526,7 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     }
 
     /**
-     * Removes an entity by GUID. Check on existence is made.
+     * Removes an entity by GUID. Check on existence is made. No outbox event is written.
      *
      * @param id the GUID of the entity
      * @return true if removed.
@@ -457,13 +1534,11 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public boolean deleteQueryById(Object id) throws DAOException {
+        markWrite();
         if (id != null) {
             try {
                 CriteriaDelete<T> cq = deleteQuery();
-                cq.where(
-                        getEntityManager().getCriteriaBuilder()
-                                .equal(cq.from(entityClass).get(idAttributeName), id)
-                );
+                cq.where(idEqual(getEntityManager().getCriteriaBuilder(), cq.from(entityClass), id));
                 int count = getEntityManager().createQuery(cq).executeUpdate();
                 getEntityManager().flush();
                 return count == 1;
@@ -475,7 +1550,7 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
     }
 
     /**
-     * Removes entities by GUIDs. Check on existence is made.
+     * Removes entities by GUIDs. Check on existence is made. No outbox event is written.
      *
      * @param ids the set of GUIDs.
      * @return the number of deleted entities.
@@ -483,10 +1558,11 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      */
     @Transactional(value = Transactional.TxType.REQUIRED, rollbackOn = DAOException.class)
     public int deleteQueryByIds(List<Object> ids) throws DAOException {
+        markWrite();
         try {
             if (ids != null && !ids.isEmpty()) {
                 CriteriaDelete<T> cq = deleteQuery();
-                cq.where(cq.from(entityClass).get(idAttributeName).in(ids));
+                cq.where(idIn(getEntityManager().getCriteriaBuilder(), cq.from(entityClass), ids));
                 int result = getEntityManager().createQuery(cq).executeUpdate();
                 getEntityManager().flush();
                 return result;
@@ -531,40 +1607,251 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
         getEntityManager().lock(entity, lockMode);
     }
 
+    /**
+     * Flushes the persistence context to the database.
+     *
+     * @throws DAOException if the method fails.
+     */
+    @Transactional(value = Transactional.TxType.MANDATORY, rollbackOn = DAOException.class)
+    public void flush() throws DAOException {
+        try {
+            getEntityManager().flush();
+        } catch (Exception e) {
+            throw handleConstraint(e, Errors.FLUSH_FAILED);
+        }
+    }
+
+    /**
+     * Creates the outbox event of the entity change. The event is persisted in the transaction of the change and
+     * written to the database with the same flush as the entity. The event entity has to be managed by the persistence
+     * unit of the DAO. The default implementation returns {@code null} and no event is written.
+     * <p>
+     * The {@link #create(Stream)} method persists the events after all entities, the inserts of the entities and of the
+     * events are sent in two JDBC batches ({@code quarkus.hibernate-orm.jdbc.statement-batch-size}) without the
+     * {@code hibernate.order_inserts} setting. The single entity methods execute the entity and the event statement
+     * one by one.
+     * <p>
+     * The bulk methods {@link #deleteQueryAll()}, {@link #deleteQueryById(Object)} and {@link #deleteQueryByIds(List)}
+     * execute the delete statement without loading the entities and do not write the outbox events, use the
+     * {@code delete} methods of the entities for the changes which have to be published.
+     *
+     * @param type   the event type.
+     * @param entity the created, updated or deleted entity.
+     * @return the outbox event or {@code null}.
+     * @see org.tkit.quarkus.jpa.outbox.OutboxDAO
+     */
+    protected AbstractOutboxEvent createOutboxEvent(OutboxEventType type, T entity) {
+        return null;
+    }
+
+    /**
+     * Persists the outbox event of the entity change if the DAO creates one.
+     *
+     * @param type   the event type.
+     * @param entity the entity.
+     */
+    private void appendOutboxEvent(OutboxEventType type, T entity) {
+        AbstractOutboxEvent event = createOutboxEvent(type, entity);
+        if (event == null) {
+            return;
+        }
+        if (event.getEventType() == null) {
+            event.setEventType(type);
+        }
+        if (event.getAggregateType() == null) {
+            event.setAggregateType(entityName);
+        }
+        if (event.getAggregateId() == null) {
+            Object id = getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+            event.setAggregateId(id == null ? null : id.toString());
+        }
+        getEntityManager().persist(event);
+    }
+
+    /**
+     * Defers the flush of the single entity {@code create}, {@code update} and {@code delete} methods
+     * of all DAOs to the end of the current transaction.
+     * <p>
+     * The persistence context is flushed before the commit of the transaction and the database constraint errors
+     * are mapped to the {@link ConstraintException} which is the cause of the rollback exception of the commit.
+     * Use the {@link #flush()} method for the immediate flush.
+     *
+     * @throws DAOException if the method fails.
+     * @see #isDeferredFlush()
+     */
+    public void deferFlush() throws DAOException {
+        try {
+            transactionSynchronizationRegistry.putResource(DEFERRED_FLUSH_KEY, Boolean.TRUE);
+            registerFlushSynchronization();
+        } catch (Exception e) {
+            throw new DAOException(Errors.DEFER_FLUSH_FAILED, e, entityName);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the single entity {@code create}, {@code update} and {@code delete} methods
+     * of this DAO defer the flush to the end of the transaction. Override this method to defer the flush
+     * for all transactions of the DAO.
+     *
+     * @return {@code true} if the flush is deferred to the end of the transaction.
+     * @see #deferFlush()
+     */
+    protected boolean isDeferredFlush() {
+        return false;
+    }
+
+    /**
+     * Flushes the persistence context unless the flush is deferred by the DAO or by the current transaction.
+     *
+     * @throws Exception if the flush fails.
+     */
+    private void flushIfRequired() throws Exception {
+        if (isDeferredFlush() || transactionSynchronizationRegistry.getResource(DEFERRED_FLUSH_KEY) != null) {
+            registerFlushSynchronization();
+        } else {
+            getEntityManager().flush();
+        }
+    }
+
+    /**
+     * Registers the flush synchronization once per transaction and persistence unit.
+     *
+     * @throws Exception if the registration fails.
+     */
+    private void registerFlushSynchronization() throws Exception {
+        // the entity managers of the persistence units are flushed separately
+        String key = FLUSH_SYNCHRONIZATION_KEY + "." + persistenceUnit;
+        if (transactionSynchronizationRegistry.getResource(key) == null) {
+            transactionSynchronizationRegistry.putResource(key, Boolean.TRUE);
+            // the non-interposed synchronization is called before the synchronization of the hibernate session
+            transactionManager.getTransaction().registerSynchronization(new FlushSynchronization());
+        }
+    }
+
+    /**
+     * The synchronization which flushes the persistence context before the commit of the transaction.
+     */
+    private class FlushSynchronization implements Synchronization {
+
+        /**
+         * {@inheritDoc }
+         */
+        @Override
+        public void beforeCompletion() {
+            if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+                return;
+            }
+            try {
+                getEntityManager().flush();
+            } catch (Exception e) {
+                throw handleConstraint(e, Errors.FLUSH_FAILED);
+            }
+        }
+
+        /**
+         * {@inheritDoc }
+         */
+        @Override
+        public void afterCompletion(int status) {
+            // nothing to do
+        }
+    }
+
+    /**
+     * Executes the action in the new transaction. The transaction is committed if the action
+     * succeeds, otherwise the transaction is rolled back.
+     *
+     * @param action the action.
+     * @param <R>    the type of the result.
+     * @return the result of the action.
+     * @throws Exception if the action or the commit of the transaction fails.
+     */
+    protected <R> R inTransaction(Supplier<R> action) throws Exception {
+        transactionManager.begin();
+        try {
+            R result = action.get();
+            transactionManager.commit();
+            return result;
+        } catch (Exception | Error e) {
+            if (transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                transactionManager.rollback();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the transaction is active for the current thread.
+     *
+     * @return {@code true} if the transaction is active.
+     */
+    protected boolean isTransactionActive() {
+        try {
+            return transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the exception is caused by the optimistic lock failure.
+     *
+     * @param ex the exception.
+     * @return {@code true} if the exception is caused by the optimistic lock failure.
+     */
+    protected static boolean isOptimisticLock(Throwable ex) {
+        Throwable cause = ex;
+        for (int i = 0; cause != null && i < MAX_CAUSE_DEPTH; i++) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
     /**
      * Handle the JPA constraint exception.
      *
      * @param ex  the exception.
      * @param key the error key.
      * @return the corresponding service exception.
+     * @see ConstraintClassifier
      */
-    @SuppressWarnings("squid:S1872")
     protected DAOException handleConstraint(Exception ex, Enum<?> key) {
         if (ex instanceof ConstraintException) {
             return (ConstraintException) ex;
         }
-        if (ex instanceof PersistenceException) {
-            PersistenceException e = (PersistenceException) ex;
-            if (e.getCause() != null) {
+        ConstraintException constraint = ConstraintClassifier.classify(ex, key, entityClass, entityName);
+        if (constraint != null) {
+            return constraint;
+        }
+        return new DAOException(key, ex, entityName);
+    }
 
-                Throwable providerException = e.getCause();
-                // Hibernate constraint violation exception
-                if ("org.hibernate.exception.ConstraintViolationException".equals(providerException.getClass().getName())) {
+    /**
+     * Gets the start time of the query for the slow query log.
+     *
+     * @return the start time of the query or {@code 0} if the slow query log is disabled.
+     * @see #recordQuery(String, Query, long, long)
+     */
+    protected long startQuery() {
+        return slowQueryLog == null ? 0 : slowQueryLog.start();
+    }
 
-                    // for the org.postgresql.util.PSQLException get the constraints message.
-                    String msg = providerException.getMessage();
-                    if (providerException.getCause() != null) {
-                        msg = providerException.getCause().getMessage();
-                        if (msg != null) {
-                            msg = msg.replaceAll("\n", "");
-                        }
-                    }
-                    // throw own constraints exception.
-                    return new ConstraintException(msg, key, e, entityName);
-                }
-            }
+    /**
+     * Records the query in the slow query log if the query is slower than the threshold.
+     *
+     * @param operation the DAO operation.
+     * @param query     the executed query or {@code null}.
+     * @param start     the start time of the query.
+     * @param rows      the number of returned rows or {@code -1} if unknown.
+     * @see SlowQueryLog
+     */
+    protected void recordQuery(String operation, Query query, long start, long rows) {
+        if (start != 0) {
+            slowQueryLog.record(entityName, operation, query, start, rows);
         }
-        return new DAOException(key, ex, entityName);
     }
 
     /**
@@ -576,6 +1863,16 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
         return this.getEntityManager().getCriteriaBuilder().createQuery(this.entityClass);
     }
 
+    /**
+     * Creates the criteria query with the criteria builder of the read entity manager.
+     *
+     * @return the criteria query.
+     * @see #getReadEntityManager()
+     */
+    protected CriteriaQuery<T> readCriteriaQuery() {
+        return getReadEntityManager().getCriteriaBuilder().createQuery(entityClass);
+    }
+
     /**
      * Creates the create delete query.
      *
@@ -598,7 +1895,7 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
      * /**
      * The error keys.
      */
-    protected enum Errors {
+    public enum Errors {
         FAILED_TO_GET_ENTITY_BY_IDS,
         FAILED_TO_DELETE_ALL,
         FAILED_TO_DELETE_ALL_QUERY,
@@ -609,6 +1906,13 @@ public abstract class AbstractDAO<T> extends EntityService<T> {
         DELETE_ENTITY_FAILED,
         FIND_ENTITY_BY_ID_FAILED,
         FIND_ALL_ENTITIES_FAILED,
+        OPTIMISTIC_LOCK_RETRY_FAILED,
+        FLUSH_FAILED,
+        DEFER_FLUSH_FAILED,
+        EXPORT_FAILED,
+        PARTITIONED_SCAN_FAILED,
+        OUTBOX_RELAY_FAILED,
+        WARMUP_FAILED,
         ;
     }
 }
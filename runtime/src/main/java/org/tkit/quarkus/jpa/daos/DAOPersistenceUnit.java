@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The persistence unit of the DAO.
+ * <p>
+ * All operations of the annotated DAO (single entity methods, paged queries, export, partitioned scan and the bulk
+ * methods) use the entity manager of the persistence unit. The DAO without the annotation uses the default
+ * persistence unit. The persistence unit name is validated and written to the DAO class at build time.
+ * <pre>
+ * {@code
+ * @ApplicationScoped
+ * @DAOPersistenceUnit("hot")
+ * public class EventDAO extends AbstractDAO<Event> {
+ * }
+ * }
+ * </pre>
+ *
+ * @see AbstractDAO#getPersistenceUnit()
+ */
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DAOPersistenceUnit {
+
+    /**
+     * The name of the persistence unit.
+     *
+     * @return the name of the persistence unit.
+     */
+    String value();
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import org.tkit.quarkus.jpa.tracing.DAOSpan;
+import org.tkit.quarkus.jpa.tracing.DAOTracer;
+
+import javax.annotation.Priority;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+
+/**
+ * The interceptor which creates the tracing span for each public DAO operation.
+ * <p>
+ * The interceptor is called before the transaction interceptor and the span contains the commit of the transaction.
+ * The interceptor only calls the method if the tracing is disabled.
+ * <p>
+ * The self-invocation of the DAO is intercepted too, for example {@code findByIds(ids)} calls
+ * {@code findByIds(ids, null)}. The nested calls of the same DAO instance do not create the nested span.
+ * <p>
+ * The {@code tkit.jpa.rows} attribute is set for the collection and the number (updated or deleted rows) results.
+ * The {@link java.util.stream.Stream} results are consumed after the span is ended and have no row count.
+ *
+ * @see DAOTracer
+ */
+@TracedDAO
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class DAOTraceInterceptor {
+
+    /**
+     * The DAO instance of the current span of the thread.
+     */
+    private static final ThreadLocal<Object> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Creates the span of the DAO method.
+     *
+     * @param ctx the invocation context.
+     * @return the result of the method.
+     * @throws Exception if the method fails.
+     */
+    @AroundInvoke
+    public Object trace(InvocationContext ctx) throws Exception {
+        Method method = ctx.getMethod();
+        if (!DAOTracer.isEnabled() || !Modifier.isPublic(method.getModifiers()) || !(ctx.getTarget() instanceof AbstractDAO)) {
+            return ctx.proceed();
+        }
+        Object target = ctx.getTarget();
+        Object parent = CURRENT.get();
+        if (parent == target) {
+            // internal delegation of the DAO
+            return ctx.proceed();
+        }
+        String entityName = ((AbstractDAO<?>) target).entityName;
+        CURRENT.set(target);
+        try (DAOSpan span = DAOTracer.start(entityName + "DAO." + method.getName(), entityName)) {
+            span.attribute(DAOTracer.ATTR_METHOD, method.getName());
+            try {
+                Object result = ctx.proceed();
+                if (result instanceof Collection) {
+                    span.attribute(DAOTracer.ATTR_ROWS, ((Collection<?>) result).size());
+                } else if (result instanceof Integer || result instanceof Long) {
+                    span.attribute(DAOTracer.ATTR_ROWS, ((Number) result).longValue());
+                } else if (result instanceof PageResult) {
+                    span.attribute(DAOTracer.ATTR_TOTAL_ELEMENTS, ((PageResult<?>) result).getTotalElements());
+                }
+                return result;
+            } catch (Exception e) {
+                span.error(e);
+                throw e;
+            }
+        } finally {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The batch loader of the entities by ID.
+ * <p>
+ * The {@link #load(Object)} calls are collected and loaded with one query by the {@link #dispatch()} method
+ * or when the number of the pending IDs reaches the max batch size. The IDs are deduplicated, the loaded
+ * entities are cached in the loader and the entities already managed by the persistence context are not
+ * loaded from the database. The loader is not thread-safe and should be used in one request, for example
+ * in the {@code @RequestScoped} bean.
+ * <pre>
+ * {@code
+ * EntityBatchLoader<User> loader = userDAO.createBatchLoader(100);
+ * List<CompletableFuture<User>> users = ids.stream().map(loader::load).collect(Collectors.toList());
+ * loader.dispatch();
+ * }
+ * </pre>
+ *
+ * @param <T> the entity class.
+ * @see AbstractDAO#createBatchLoader(int)
+ */
+public class EntityBatchLoader<T> {
+
+    /**
+     * The DAO of the entity.
+     */
+    private final AbstractDAO<T> dao;
+
+    /**
+     * The max batch size.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The pending loads by ID.
+     */
+    private final Map<Object, CompletableFuture<T>> pending = new LinkedHashMap<>();
+
+    /**
+     * The dispatched loads by ID.
+     */
+    private final Map<Object, CompletableFuture<T>> loaded = new HashMap<>();
+
+    /**
+     * The constructor.
+     *
+     * @param dao          the DAO of the entity.
+     * @param maxBatchSize the max batch size.
+     */
+    public EntityBatchLoader(AbstractDAO<T> dao, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be greater than 0");
+        }
+        this.dao = dao;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Loads the entity. The entity is loaded by the next dispatch of the loader.
+     *
+     * @param id the entity ID.
+     * @return the future of the entity, the future is completed with {@code null} if the entity does not exist.
+     */
+    public CompletableFuture<T> load(Object id) {
+        CompletableFuture<T> future = loaded.get(id);
+        if (future != null) {
+            return future;
+        }
+        future = pending.get(id);
+        if (future == null) {
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+            if (pending.size() >= maxBatchSize) {
+                dispatch();
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Loads the entities. The entities are loaded by the next dispatch of the loader.
+     *
+     * @param ids the entity IDs.
+     * @return the list of the futures of the entities in the order of the IDs.
+     */
+    public List<CompletableFuture<T>> loadMany(Collection<?> ids) {
+        List<CompletableFuture<T>> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            result.add(load(id));
+        }
+        return result;
+    }
+
+    /**
+     * Loads the entity and dispatches the pending loads.
+     *
+     * @param id the entity ID.
+     * @return the entity or {@code null} if the entity does not exist.
+     * @throws DAOException if the method fails.
+     */
+    public T get(Object id) throws DAOException {
+        CompletableFuture<T> future = load(id);
+        if (!future.isDone()) {
+            dispatch();
+        }
+        try {
+            return future.getNow(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DAOException) {
+                throw (DAOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the pending IDs with one query and completes the futures.
+     */
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object> ids = new ArrayList<>(pending.keySet());
+        Map<Object, CompletableFuture<T>> futures = new HashMap<>(pending);
+        pending.clear();
+        loaded.putAll(futures);
+        try {
+            List<T> entities = dao.findByIdsInOrder(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                futures.get(ids.get(i)).complete(entities.get(i));
+            }
+        } catch (Exception e) {
+            futures.values().forEach(f -> f.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Gets the number of the pending IDs.
+     *
+     * @return the number of the pending IDs.
+     */
+    public int getPendingSize() {
+        return pending.size();
+    }
+
+    /**
+     * Clears the cache of the loaded entities.
+     */
+    public void clear() {
+        loaded.clear();
+    }
+}
@@ -43,4 +43,12 @@ public abstract class EntityService<T> {
     protected String getIdAttributeName() {
         return null;
     }
+
+    /**
+     * The persistence unit name.
+     * @return the persistence unit name or {@code null} for the default persistence unit.
+     */
+    protected String getPersistenceUnitName() {
+        return null;
+    }
 }
@@ -2,10 +2,16 @@ package org.tkit.quarkus.jpa.daos;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.diagnostics.SlowQueryLog;
 import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.tracing.DAOSpan;
+import org.tkit.quarkus.jpa.tracing.DAOTracer;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -38,38 +44,132 @@ public class PagedQuery<T> {
      */
     private Page page;
 
+    /**
+     * The slow query log.
+     */
+    private SlowQueryLog slowQueryLog;
+
+    /**
+     * The entity name for the slow query log.
+     */
+    private String entityName;
+
     /**
      * Default constructor.
      *
-     * @param em       the entity manager.
-     * @param criteria the search criteria
-     * @param page     the start page.
+     * @param em              the entity manager.
+     * @param criteria        the search criteria
+     * @param page            the start page.
+     * @param idAttributeName the ID attribute name for the default sorting.
      */
     public PagedQuery(EntityManager em, CriteriaQuery<T> criteria, Page page, String idAttributeName) {
+        this(em, criteria, page, List.of(idAttributeName));
+    }
+
+    /**
+     * The constructor for the entities with the composite ID.
+     *
+     * @param em           the entity manager.
+     * @param criteria     the search criteria
+     * @param page         the start page.
+     * @param idAttributes the ID attribute paths in the key order for the default sorting.
+     */
+    public PagedQuery(EntityManager em, CriteriaQuery<T> criteria, Page page, List<String> idAttributes) {
         this.em = em;
-        this.criteria = setDefaultSorting(em, criteria, idAttributeName);
+        this.criteria = setDefaultSorting(em, criteria, idAttributes);
         this.page = page;
         this.countCriteria = createCountCriteria(em, criteria);
     }
 
     public PageResult<T> getPageResult() {
+        String name = entityName != null ? entityName : criteria.getResultType().getSimpleName();
+        DAOSpan span = DAOSpan.NOOP;
         try {
             // get count
-            Long count = em.createQuery(countCriteria).getSingleResult();
+            span = startSpan("count", name);
+            long start = startQuery();
+            TypedQuery<Long> countQuery = em.createQuery(countCriteria);
+            Long count = countQuery.getSingleResult();
+            recordQuery("count", countQuery, start, 1);
+            span.attribute(DAOTracer.ATTR_TOTAL_ELEMENTS, count);
+            span.close();
+            span = DAOSpan.NOOP;
             // get stream
-            Stream<T> stream = em.createQuery(criteria)
+            span = startSpan("data", name);
+            start = startQuery();
+            TypedQuery<T> query = em.createQuery(criteria)
                     .setFirstResult(page.number() * page.size())
-                    .setMaxResults(page.size())
-                    .getResultStream();
+                    .setMaxResults(page.size());
+            Stream<T> stream = query.getResultStream();
+            long rows = Math.max(0, Math.min(page.size(), count - (long) page.number() * page.size()));
+            recordQuery("getPageResult", query, start, rows);
+            span.attribute(DAOTracer.ATTR_ROWS, rows);
+            span.close();
+            span = DAOSpan.NOOP;
             // create page result
             return new PageResult<T>(count, stream, page);
         } catch (Exception ex) {
             String entityClass = criteria.getResultType() != null ? criteria.getResultType().getName() : null;
-            throw new DAOException(Errors.GET_PAGE_RESULT_ERROR, ex, page.number(), page.size(), entityClass);
+            DAOException error = new DAOException(Errors.GET_PAGE_RESULT_ERROR, ex, page.number(), page.size(), entityClass);
+            span.error(error);
+            span.close();
+            throw error;
+        }
+    }
+
+    /**
+     * Starts the tracing span of the page result phase.
+     *
+     * @param phase the phase of the page result.
+     * @param name  the entity name.
+     * @return the new span.
+     */
+    private DAOSpan startSpan(String phase, String name) {
+        if (!DAOTracer.isEnabled()) {
+            return DAOSpan.NOOP;
+        }
+        return DAOTracer.start("PagedQuery." + phase, name)
+                .attribute(DAOTracer.ATTR_PAGE_NUMBER, page.number())
+                .attribute(DAOTracer.ATTR_PAGE_SIZE, page.size());
+    }
+
+    /**
+     * Sets the slow query log of the paged query.
+     *
+     * @param slowQueryLog the slow query log.
+     * @param entityName   the entity name.
+     * @return the paged query.
+     */
+    PagedQuery<T> slowQueryLog(SlowQueryLog slowQueryLog, String entityName) {
+        this.slowQueryLog = slowQueryLog;
+        this.entityName = entityName;
+        return this;
+    }
+
+    /**
+     * Gets the start time of the query for the slow query log.
+     *
+     * @return the start time of the query or {@code 0} if the slow query log is not set.
+     */
+    private long startQuery() {
+        return slowQueryLog == null ? 0 : slowQueryLog.start();
+    }
+
+    /**
+     * Records the query in the slow query log.
+     *
+     * @param operation the operation.
+     * @param query     the executed query.
+     * @param start     the start time of the query.
+     * @param rows      the number of returned rows.
+     */
+    private void recordQuery(String operation, TypedQuery<?> query, long start, long rows) {
+        if (start != 0) {
+            slowQueryLog.record(entityName, "PagedQuery#" + operation, query, start, rows);
         }
     }
 
-    private static <T> CriteriaQuery<T> setDefaultSorting(EntityManager em, CriteriaQuery<T> criteria, String idAttributeName) {
+    private static <T> CriteriaQuery<T> setDefaultSorting(EntityManager em, CriteriaQuery<T> criteria, List<String> idAttributes) {
         Root<T> root = null;
         try {
             CriteriaBuilder builder = em.getCriteriaBuilder();
@@ -77,8 +177,12 @@ public class PagedQuery<T> {
                 log.warn("Paged query used without explicit orderBy. Ordering of results between pages not guaranteed. Please add an orderBy clause to your query.");
                 root = findRoot(criteria, criteria.getResultType());
                 if (root != null) {
-                    criteria.orderBy(builder.asc(root.get(idAttributeName)));
-                    log.warn("Default sorting by '{}' attribute is added.", idAttributeName);
+                    List<Order> orders = new ArrayList<>(idAttributes.size());
+                    for (String attribute : idAttributes) {
+                        orders.add(builder.asc(AbstractDAO.attributePath(root, attribute)));
+                    }
+                    criteria.orderBy(orders);
+                    log.warn("Default sorting by '{}' attributes is added.", idAttributes);
                 }
             }
         } catch (IllegalArgumentException ex) {
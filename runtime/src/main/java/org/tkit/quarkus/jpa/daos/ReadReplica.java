@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The read replica persistence unit of the DAO.
+ * <p>
+ * The read methods of the annotated DAO ({@code findAll}, {@code findById}, {@code findByIds}, paged queries)
+ * use the entity manager of the read replica persistence unit if there is no active transaction and there
+ * was no write operation of the DAO in the current request. The routing could be disabled by the property
+ * {@code tkit.jpa.read-replica.enabled=false}.
+ * <pre>
+ * {@code
+ * @ApplicationScoped
+ * @ReadReplica("replica")
+ * public class UserDAO extends AbstractDAO<User> {
+ * }
+ * }
+ * </pre>
+ *
+ * @see AbstractDAO#getReadEntityManager()
+ */
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadReplica {
+
+    /**
+     * The name of the read replica persistence unit.
+     *
+     * @return the name of the read replica persistence unit.
+     */
+    String value();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import javax.enterprise.context.RequestScoped;
+
+/**
+ * The request state of the read replica routing. The reads after the write operation
+ * in the same request use the primary persistence unit.
+ *
+ * @see ReadReplica
+ */
+@RequestScoped
+public class ReadReplicaContext {
+
+    /**
+     * The write flag of the request.
+     */
+    private boolean written;
+
+    /**
+     * Marks the request as written.
+     */
+    public void markWrite() {
+        written = true;
+    }
+
+    /**
+     * Returns {@code true} if there was the write operation in the request.
+     *
+     * @return {@code true} if there was the write operation in the request.
+     */
+    public boolean isWritten() {
+        return written;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The retry policy of the optimistic lock failures.
+ * <p>
+ * The delay between the attempts grows exponentially from the initial delay up to the max delay
+ * and the random jitter is applied to the delay ("full jitter").
+ */
+public class RetryPolicy {
+
+    /**
+     * The default retry policy: 5 attempts, initial delay 10 ms and max delay 500 ms.
+     */
+    public static final RetryPolicy DEFAULT = of(5, 10, 500);
+
+    /**
+     * The max exponent of the delay.
+     */
+    private static final int MAX_EXPONENT = 30;
+
+    /**
+     * The max number of attempts.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The initial delay in milliseconds.
+     */
+    private final long initialDelay;
+
+    /**
+     * The max delay in milliseconds.
+     */
+    private final long maxDelay;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxAttempts  the max number of attempts.
+     * @param initialDelay the initial delay in milliseconds.
+     * @param maxDelay     the max delay in milliseconds.
+     */
+    private RetryPolicy(int maxAttempts, long initialDelay, long maxDelay) {
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Creates the retry policy.
+     *
+     * @param maxAttempts  the max number of attempts.
+     * @param initialDelay the initial delay in milliseconds.
+     * @param maxDelay     the max delay in milliseconds.
+     * @return the corresponding retry policy.
+     */
+    public static RetryPolicy of(int maxAttempts, long initialDelay, long maxDelay) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("The max attempts must be greater than 0");
+        }
+        return new RetryPolicy(maxAttempts, Math.max(0, initialDelay), Math.max(0, maxDelay));
+    }
+
+    /**
+     * The max number of attempts.
+     *
+     * @return the max number of attempts.
+     */
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * The initial delay in milliseconds.
+     *
+     * @return the initial delay in milliseconds.
+     */
+    public long initialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * The max delay in milliseconds.
+     *
+     * @return the max delay in milliseconds.
+     */
+    public long maxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Gets the delay with jitter after the failed attempt.
+     *
+     * @param attempt the number of the failed attempt starting with 1.
+     * @return the delay in milliseconds.
+     */
+    public long delay(int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), MAX_EXPONENT);
+        long delay = Math.min(maxDelay, initialDelay << exponent);
+        if (delay <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(delay + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "a=" + maxAttempts +
+                ",i=" + initialDelay +
+                ",m=" + maxDelay +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The optimistic lock retry statistics of the entity DAO.
+ */
+public class RetryStatistics {
+
+    /**
+     * The number of the executions.
+     */
+    private final LongAdder executions = new LongAdder();
+
+    /**
+     * The number of the attempts.
+     */
+    private final LongAdder attempts = new LongAdder();
+
+    /**
+     * The number of the optimistic lock conflicts.
+     */
+    private final LongAdder conflicts = new LongAdder();
+
+    /**
+     * The number of the retries.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * The number of the executions failed after the last attempt.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Counts the execution.
+     */
+    void execution() {
+        executions.increment();
+    }
+
+    /**
+     * Counts the attempt.
+     */
+    void attempt() {
+        attempts.increment();
+    }
+
+    /**
+     * Counts the optimistic lock conflict.
+     */
+    void conflict() {
+        conflicts.increment();
+    }
+
+    /**
+     * Counts the retry.
+     */
+    void retry() {
+        retries.increment();
+    }
+
+    /**
+     * Counts the failed execution.
+     */
+    void failure() {
+        failures.increment();
+    }
+
+    /**
+     * Gets the number of the executions.
+     *
+     * @return the number of the executions.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Gets the number of the attempts.
+     *
+     * @return the number of the attempts.
+     */
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    /**
+     * Gets the number of the optimistic lock conflicts.
+     *
+     * @return the number of the optimistic lock conflicts.
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Gets the number of the retries.
+     *
+     * @return the number of the retries.
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets the number of the executions failed after the last attempt.
+     *
+     * @return the number of the failed executions.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the conflict rate, the number of the conflicts per attempt.
+     *
+     * @return the conflict rate.
+     */
+    public double getConflictRate() {
+        long tmp = getAttempts();
+        if (tmp == 0) {
+            return 0;
+        }
+        return (double) getConflicts() / tmp;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStatistics{" +
+                "e=" + getExecutions() +
+                ",a=" + getAttempts() +
+                ",c=" + getConflicts() +
+                ",r=" + getRetries() +
+                ",f=" + getFailures() +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The result of the partitioned scan.
+ *
+ * @param <R> the type of the result.
+ * @see AbstractDAO#scan(int, int, java.util.function.Function, java.util.function.BinaryOperator)
+ */
+public class ScanResult<R> {
+
+    /**
+     * The combined result of the successful partitions.
+     */
+    private final R result;
+
+    /**
+     * The number of partitions.
+     */
+    private final int partitions;
+
+    /**
+     * The failures of the partitions by the index of the partition.
+     */
+    private final Map<Integer, Throwable> failures;
+
+    /**
+     * The constructor.
+     *
+     * @param result     the combined result of the successful partitions.
+     * @param partitions the number of partitions.
+     * @param failures   the failures of the partitions.
+     */
+    public ScanResult(R result, int partitions, Map<Integer, Throwable> failures) {
+        this.result = result;
+        this.partitions = partitions;
+        this.failures = failures == null ? Collections.emptyMap() : Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Gets the combined result of the successful partitions.
+     *
+     * @return the combined result of the successful partitions.
+     */
+    public R getResult() {
+        return result;
+    }
+
+    /**
+     * Gets the number of partitions.
+     *
+     * @return the number of partitions.
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Gets the failures of the partitions by the index of the partition.
+     *
+     * @return the failures of the partitions.
+     */
+    public Map<Integer, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns {@code true} if all partitions were processed successfully.
+     *
+     * @return {@code true} if all partitions were processed successfully.
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ScanResult{" +
+                "p=" + partitions +
+                ",f=" + failures.keySet() +
+                '}';
+    }
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InstanceHandle;
+import io.quarkus.arc.ManagedContext;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.models.TraceableEntity;
+import org.tkit.quarkus.jpa.models.UUIDTraceableEntity;
+
+import javax.transaction.Status;
+import javax.transaction.TransactionManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The hash sharding router of the DAOs of the same entity in different persistence units.
+ * <p>
+ * Each shard is the DAO of the entity with own persistence unit ({@link DAOPersistenceUnit}). The {@code create},
+ * {@code update} and {@code delete} methods are routed by the hash of the shard key of the entity, the default shard
+ * key is the GUID of the {@link TraceableEntity} or {@link UUIDTraceableEntity}. The {@code findByIds} and the page
+ * result are scattered to the shards in parallel and the results are gathered. The number and the order of the shards
+ * must not change for the existing data, the router does not rebalance the entities.
+ * <p>
+ * The parallel shard queries run in the executor threads without the transaction of the caller. If the transaction
+ * is active for the caller thread the shards are queried one by one in the caller thread and the transaction
+ * (including the not flushed changes) is used by all shards. The transaction of several shards requires the XA data
+ * sources ({@code quarkus.datasource.<name>.jdbc.transactions=xa}).
+ * <p>
+ * The router is created once for the application and closed at the shutdown, the simplest way is the producer of the
+ * singleton bean with the disposer method. The router creates the own thread pool on the first parallel query, the
+ * shared executor (for example the {@code ManagedExecutor}) could be set in the constructor instead and is not closed
+ * by the router.
+ * <pre>
+ * {@code
+ * @Produces
+ * @Singleton
+ * ShardedDAO<User, UserDAO> users(UserShard0DAO shard0, UserShard1DAO shard1) {
+ *     return new ShardedDAO<>(List.of(shard0, shard1));
+ * }
+ *
+ * void close(@Disposes ShardedDAO<User, UserDAO> users) {
+ *     users.close();
+ * }
+ *
+ * users.create(user);
+ * PageResult<User> page = users.getPageResult((dao, p) -> dao.pageUsers(criteria, p), Page.of(0, 20),
+ *         Comparator.comparing(User::getName).thenComparing(User::getId));
+ * }
+ * </pre>
+ *
+ * @param <T> the entity type.
+ * @param <D> the DAO type of the shards.
+ */
+public class ShardedDAO<T, D extends AbstractDAO<T>> implements AutoCloseable {
+
+    /**
+     * The shard DAOs.
+     */
+    private final List<D> shards;
+
+    /**
+     * The shard key of the entity.
+     */
+    private final Function<T, Object> shardKey;
+
+    /**
+     * {@code true} if the shard key is the ID of the entity.
+     */
+    private final boolean shardKeyId;
+
+    /**
+     * {@code true} if the executor is created and closed by the router.
+     */
+    private final boolean ownExecutor;
+
+    /**
+     * The executor of the scattered operations.
+     */
+    private ExecutorService executor;
+
+    /**
+     * {@code true} if the router is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates the router with the GUID of the entity as the shard key.
+     *
+     * @param shards the shard DAOs.
+     */
+    public ShardedDAO(List<D> shards) {
+        this(shards, ShardedDAO::guid, true, null);
+    }
+
+    /**
+     * Creates the router with the GUID of the entity as the shard key and the shared executor.
+     *
+     * @param shards   the shard DAOs.
+     * @param executor the executor of the parallel shard queries, the executor is not closed by the router.
+     */
+    public ShardedDAO(List<D> shards, ExecutorService executor) {
+        this(shards, ShardedDAO::guid, true, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Creates the router with the custom shard key. The {@link #findById(Object)} is scattered to all shards
+     * because the shard key could not be computed from the ID.
+     *
+     * @param shards   the shard DAOs.
+     * @param shardKey the shard key of the entity.
+     */
+    public ShardedDAO(List<D> shards, Function<T, Object> shardKey) {
+        this(shards, shardKey, false, null);
+    }
+
+    /**
+     * Creates the router with the custom shard key and the shared executor.
+     *
+     * @param shards   the shard DAOs.
+     * @param shardKey the shard key of the entity.
+     * @param executor the executor of the parallel shard queries, the executor is not closed by the router.
+     * @see #ShardedDAO(List, Function)
+     */
+    public ShardedDAO(List<D> shards, Function<T, Object> shardKey, ExecutorService executor) {
+        this(shards, shardKey, false, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Creates the router.
+     *
+     * @param shards     the shard DAOs.
+     * @param shardKey   the shard key of the entity.
+     * @param shardKeyId {@code true} if the shard key is the ID of the entity.
+     * @param executor   the shared executor or {@code null} for the own thread pool.
+     */
+    private ShardedDAO(List<D> shards, Function<T, Object> shardKey, boolean shardKeyId, ExecutorService executor) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("The sharded DAO requires at least one shard");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.shardKey = Objects.requireNonNull(shardKey);
+        this.shardKeyId = shardKeyId;
+        this.executor = executor;
+        this.ownExecutor = executor == null;
+    }
+
+    /**
+     * Gets the number of the shards.
+     *
+     * @return the number of the shards.
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Gets the shard DAOs.
+     *
+     * @return the unmodifiable list of the shard DAOs.
+     */
+    public List<D> getShards() {
+        return shards;
+    }
+
+    /**
+     * Gets the shard index of the shard key.
+     *
+     * @param key the shard key.
+     * @return the shard index.
+     */
+    public int shardIndex(Object key) {
+        int h = Objects.hashCode(key);
+        // spread the bits of the hash code, the string hash codes differ mostly in the low bits
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return Math.floorMod(h, shards.size());
+    }
+
+    /**
+     * Gets the shard DAO of the entity.
+     *
+     * @param entity the entity.
+     * @return the shard DAO.
+     */
+    public D shard(T entity) {
+        return shards.get(shardIndex(shardKey.apply(entity)));
+    }
+
+    /**
+     * Creates the entity in the shard of the entity.
+     *
+     * @param entity the entity.
+     * @return the created entity.
+     * @throws DAOException if the method fails.
+     */
+    public T create(T entity) throws DAOException {
+        return shard(entity).create(entity);
+    }
+
+    /**
+     * Updates the entity in the shard of the entity.
+     *
+     * @param entity the entity.
+     * @return the updated entity.
+     * @throws DAOException if the method fails.
+     */
+    public T update(T entity) throws DAOException {
+        return shard(entity).update(entity);
+    }
+
+    /**
+     * Deletes the entity in the shard of the entity.
+     *
+     * @param entity the entity.
+     * @throws DAOException if the method fails.
+     */
+    public void delete(T entity) throws DAOException {
+        shard(entity).delete(entity);
+    }
+
+    /**
+     * Finds the entity by ID. The method is routed to the shard of the ID for the default shard key,
+     * otherwise it is scattered to all shards.
+     *
+     * @param id the ID of the entity.
+     * @return the entity or {@code null}.
+     * @throws DAOException if the method fails.
+     */
+    public T findById(Object id) throws DAOException {
+        if (shardKeyId) {
+            return shards.get(shardIndex(id)).findById(id);
+        }
+        try {
+            return scatter(allShards(), (dao, index) -> dao.findById(id)).stream()
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+        } catch (Exception e) {
+            throw new DAOException(Errors.FIND_BY_ID_FAILED, e, id);
+        }
+    }
+
+    /**
+     * Finds the entities by IDs. The IDs are grouped by the shard for the default shard key, otherwise all IDs
+     * are sent to all shards. The shards are queried in parallel and the result is not ordered.
+     *
+     * @param ids the IDs of the entities.
+     * @return the list of the entities.
+     * @throws DAOException if the method fails.
+     */
+    public List<T> findByIds(List<Object> ids) throws DAOException {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, List<Object>> groups = new LinkedHashMap<>();
+        if (shardKeyId) {
+            ids.forEach(id -> groups.computeIfAbsent(shardIndex(id), k -> new ArrayList<>()).add(id));
+        } else {
+            allShards().forEach(i -> groups.put(i, ids));
+        }
+        try {
+            List<Integer> indexes = new ArrayList<>(groups.keySet());
+            List<List<T>> results = scatter(indexes, (dao, index) -> dao.findByIds(groups.get(index)).collect(Collectors.toList()));
+            return results.stream().flatMap(List::stream).collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new DAOException(Errors.FIND_BY_IDS_FAILED, e, ids.size());
+        }
+    }
+
+    /**
+     * Gets the page result of all shards.
+     * <p>
+     * Each shard executes the page query with the first {@code (number + 1) * size} entities ordered by the query order,
+     * the sorted shard pages are merged by the comparator and the requested page is taken from the merged result.
+     * The comparator must define the same total order as the order of the query (add the ID as the last criteria).
+     * The cost of the page grows with the page number, use the narrow criteria for the deep pages.
+     *
+     * @param query      the page query of the shard DAO for the shard page.
+     * @param page       the requested page.
+     * @param comparator the comparator of the query order.
+     * @return the page result.
+     * @throws DAOException             if the method fails.
+     * @throws IllegalArgumentException if {@code (number + 1) * size} of the page exceeds {@link Integer#MAX_VALUE}.
+     */
+    public PageResult<T> getPageResult(BiFunction<D, Page, PagedQuery<T>> query, Page page, Comparator<? super T> comparator) throws DAOException {
+        long end = (page.number() + 1L) * page.size();
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The sharded page " + page.number() + " of the size " + page.size()
+                    + " exceeds the max number of the merged entities " + Integer.MAX_VALUE);
+        }
+        int limit = (int) end;
+        Page shardPage = Page.of(0, limit);
+        try {
+            List<ShardPage<T>> pages = scatter(allShards(), (dao, index) -> {
+                PageResult<T> result = query.apply(dao, shardPage).getPageResult();
+                return new ShardPage<>(result.getTotalElements(), result.getStream().collect(Collectors.toList()));
+            });
+            long total = pages.stream().mapToLong(p -> p.total).sum();
+            List<T> merged = merge(pages, comparator, limit);
+            List<T> items = merged.subList(Math.min(merged.size(), page.number() * page.size()), merged.size());
+            return new PageResult<>(total, new ArrayList<>(items).stream(), page);
+        } catch (Exception e) {
+            throw new DAOException(Errors.PAGE_RESULT_FAILED, e, page.number(), page.size());
+        }
+    }
+
+    /**
+     * Closes the router and shuts down the own thread pool of the router. The shared executor set in the constructor
+     * is not closed. The parallel shard queries fail after the router is closed.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (ownExecutor && executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Merges the sorted shard pages with the k-way merge.
+     *
+     * @param pages      the sorted shard pages.
+     * @param comparator the comparator.
+     * @param limit      the max size of the result.
+     * @param <T>        the entity type.
+     * @return the first {@code limit} entities of the merged pages.
+     */
+    static <T> List<T> merge(List<ShardPage<T>> pages, Comparator<? super T> comparator, int limit) {
+        PriorityQueue<Head<T>> queue = new PriorityQueue<>(Math.max(1, pages.size()), (a, b) -> comparator.compare(a.value, b.value));
+        for (ShardPage<T> p : pages) {
+            Iterator<T> it = p.items.iterator();
+            if (it.hasNext()) {
+                queue.add(new Head<>(it.next(), it));
+            }
+        }
+        List<T> result = new ArrayList<>(limit);
+        while (!queue.isEmpty() && result.size() < limit) {
+            Head<T> head = queue.poll();
+            result.add(head.value);
+            if (head.iterator.hasNext()) {
+                queue.add(new Head<>(head.iterator.next(), head.iterator));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the indexes of all shards.
+     *
+     * @return the indexes of all shards.
+     */
+    private List<Integer> allShards() {
+        List<Integer> result = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the executor of the parallel shard queries. The own thread pool is created on the first call.
+     *
+     * @return the executor.
+     * @throws IllegalStateException if the router is closed.
+     */
+    private synchronized ExecutorService executor() {
+        if (closed) {
+            throw new IllegalStateException("The sharded DAO is closed");
+        }
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(shards.size(), r -> {
+                Thread thread = new Thread(r, "tkit-jpa-shard-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Executes the action on the shards in parallel. The single shard action and all actions in the active
+     * transaction are executed in the caller thread.
+     *
+     * @param indexes the shard indexes.
+     * @param action  the action of the shard DAO and the shard index.
+     * @param <R>     the type of the result.
+     * @return the results in the order of the indexes.
+     * @throws Exception if the action of any shard fails.
+     */
+    private <R> List<R> scatter(List<Integer> indexes, BiFunction<D, Integer, R> action) throws Exception {
+        if (indexes.size() == 1 || isTransactionActive()) {
+            List<R> results = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                results.add(inRequestContext(index, action));
+            }
+            return results;
+        }
+        ExecutorService pool = executor();
+        List<Future<R>> futures = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            futures.add(pool.submit(() -> inRequestContext(index, action)));
+        }
+        List<R> results = new ArrayList<>(indexes.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Executes the action in the request context. The request scoped persistence context of the shard
+     * is closed after the action, the returned entities are detached.
+     *
+     * @param index  the shard index.
+     * @param action the action.
+     * @param <R>    the type of the result.
+     * @return the result of the action.
+     */
+    private <R> R inRequestContext(int index, BiFunction<D, Integer, R> action) {
+        D dao = shards.get(index);
+        ManagedContext context = Arc.container().requestContext();
+        if (context.isActive()) {
+            return action.apply(dao, index);
+        }
+        context.activate();
+        try {
+            return action.apply(dao, index);
+        } finally {
+            context.terminate();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the transaction is active for the caller thread.
+     *
+     * @return {@code true} if the transaction is active.
+     */
+    private static boolean isTransactionActive() {
+        try (InstanceHandle<TransactionManager> handle = Arc.container().instance(TransactionManager.class)) {
+            return handle.isAvailable() && handle.get().getStatus() != Status.STATUS_NO_TRANSACTION;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the GUID of the traceable entity. The GUID of the new entity is generated before the routing.
+     *
+     * @param entity the entity.
+     * @param <T>    the entity type.
+     * @return the GUID of the entity.
+     */
+    private static <T> Object guid(T entity) {
+        if (entity instanceof TraceableEntity) {
+            ((TraceableEntity) entity).generateId();
+            return ((TraceableEntity) entity).getId();
+        }
+        if (entity instanceof UUIDTraceableEntity) {
+            ((UUIDTraceableEntity) entity).generateId();
+            return ((UUIDTraceableEntity) entity).getId();
+        }
+        throw new IllegalArgumentException("The default shard key requires the traceable entity with GUID, use the custom shard key for "
+                + (entity == null ? null : entity.getClass().getName()));
+    }
+
+    /**
+     * The sorted page of the shard.
+     *
+     * @param <T> the entity type.
+     */
+    static class ShardPage<T> {
+
+        /**
+         * The total number of the entities of the shard.
+         */
+        final long total;
+
+        /**
+         * The sorted entities of the page.
+         */
+        final List<T> items;
+
+        /**
+         * The default constructor.
+         *
+         * @param total the total number of the entities of the shard.
+         * @param items the sorted entities of the page.
+         */
+        ShardPage(long total, List<T> items) {
+            this.total = total;
+            this.items = items;
+        }
+    }
+
+    /**
+     * The head of the shard page in the merge queue.
+     *
+     * @param <T> the entity type.
+     */
+    private static class Head<T> {
+
+        /**
+         * The current value.
+         */
+        final T value;
+
+        /**
+         * The iterator of the remaining values.
+         */
+        final Iterator<T> iterator;
+
+        /**
+         * The default constructor.
+         *
+         * @param value    the current value.
+         * @param iterator the iterator of the remaining values.
+         */
+        Head(T value, Iterator<T> iterator) {
+            this.value = value;
+            this.iterator = iterator;
+        }
+    }
+
+    /**
+     * The error keys.
+     */
+    public enum Errors {
+
+        /**
+         * Find the entity by ID failed.
+         */
+        FIND_BY_ID_FAILED,
+
+        /**
+         * Find the entities by IDs failed.
+         */
+        FIND_BY_IDS_FAILED,
+
+        /**
+         * Gets the page result failed.
+         */
+        PAGE_RESULT_FAILED;
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.daos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.models.AbstractTraceableEntity;
+import org.tkit.quarkus.jpa.models.TraceableListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * The write-behind queue of the append-only entities, for example the audit trail or the click events.
+ * <p>
+ * The {@link #enqueue(Object)} method puts the entity to the bounded queue and returns without the transaction.
+ * The worker thread creates the entities in batches of {@code batchSize} entities or after the {@code flushInterval},
+ * each batch in one transaction with the JDBC batching ({@code quarkus.hibernate-orm.jdbc.statement-batch-size}).
+ * The full queue blocks the producer up to the offer timeout and then the enqueue fails (back-pressure).
+ * <p>
+ * The principal and the date of the {@link AbstractTraceableEntity} are resolved in the {@code enqueue} method
+ * in the thread of the producer and set to the creation and modification fields before the batch is written.
+ * <p>
+ * <b>Durability:</b> the enqueued entity is not persisted until its batch is committed. The entities in the queue
+ * are lost if the process crashes, and the batch which fails (for example by the constraint violation of one
+ * entity) is handed to the failure handler and not retried. Use the queue only for the entities which could be
+ * lost, and keep the entities which must be durable on the synchronous {@code create}. The queue is drained
+ * by {@link #close()}, close the queue on the shutdown of the application.
+ * <pre>
+ * {@code
+ * @ApplicationScoped
+ * public class ClickEventDAO extends AbstractDAO<ClickEvent> {
+ *
+ *     WriteBehindQueue<ClickEvent> queue;
+ *
+ *     @PostConstruct
+ *     void initQueue() {
+ *         queue = createWriteBehindQueue(10_000, 500, 200);
+ *     }
+ *
+ *     @PreDestroy
+ *     void closeQueue() {
+ *         queue.close();
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @param <T> the entity type.
+ */
+public class WriteBehindQueue<T> implements AutoCloseable {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    /**
+     * The default offer timeout in milliseconds.
+     */
+    public static final long DEFAULT_OFFER_TIMEOUT = 1000;
+
+    /**
+     * The DAO of the entity.
+     */
+    private final AbstractDAO<T> dao;
+
+    /**
+     * The bounded queue.
+     */
+    private final BlockingQueue<Entry<T>> queue;
+
+    /**
+     * The max batch size.
+     */
+    private final int batchSize;
+
+    /**
+     * The flush interval in milliseconds.
+     */
+    private final long flushInterval;
+
+    /**
+     * The offer timeout of the full queue in milliseconds.
+     */
+    private volatile long offerTimeout = DEFAULT_OFFER_TIMEOUT;
+
+    /**
+     * The handler of the failed batches.
+     */
+    private volatile Consumer<List<T>> failureHandler;
+
+    /**
+     * The number of the written entities.
+     */
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * The number of the entities of the failed batches.
+     */
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * The number of the rejected entities.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * The number of the batches.
+     */
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * The running flag.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * The lock of the running flag, the enqueue holds the read lock and the close the write lock.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The worker thread.
+     */
+    private final Thread worker;
+
+    /**
+     * The default constructor. The worker thread is started.
+     *
+     * @param dao           the DAO of the entity.
+     * @param capacity      the capacity of the queue.
+     * @param batchSize     the max batch size.
+     * @param flushInterval the max time in milliseconds the entity waits in the queue for the full batch.
+     */
+    public WriteBehindQueue(AbstractDAO<T> dao, int capacity, int batchSize, long flushInterval) {
+        if (capacity < 1 || batchSize < 1 || flushInterval < 1) {
+            throw new IllegalArgumentException("The capacity, the batch size and the flush interval must be positive");
+        }
+        this.dao = dao;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.failureHandler = batch -> log.error("Write-behind batch of {} entities of the {} failed, the entities are lost",
+                batch.size(), dao.getClass().getSimpleName());
+        this.worker = new Thread(this::run, "tkit-jpa-write-behind-" + dao.getClass().getSimpleName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Sets the offer timeout of the full queue.
+     *
+     * @param offerTimeout the offer timeout in milliseconds.
+     * @return the queue.
+     */
+    public WriteBehindQueue<T> offerTimeout(long offerTimeout) {
+        this.offerTimeout = offerTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the handler of the failed batches. The default handler logs the error.
+     *
+     * @param failureHandler the handler of the failed batches.
+     * @return the queue.
+     */
+    public WriteBehindQueue<T> onFailure(Consumer<List<T>> failureHandler) {
+        this.failureHandler = failureHandler;
+        return this;
+    }
+
+    /**
+     * Enqueues the entity. The method blocks up to the offer timeout if the queue is full.
+     *
+     * The principal and the date of the traceable entity are resolved in the current thread.
+     *
+     * @param entity the entity.
+     * @throws DAOException if the queue is closed or still full after the offer timeout.
+     */
+    public void enqueue(T entity) throws DAOException {
+        Entry<T> entry = new Entry<>(entity);
+        // the close waits for the running offers, the worker stops only after the last accepted entity
+        lock.readLock().lock();
+        try {
+            if (!running) {
+                throw new DAOException(Errors.WRITE_BEHIND_CLOSED, null, dao.getClass().getSimpleName());
+            }
+            if (!queue.offer(entry, offerTimeout, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new DAOException(Errors.WRITE_BEHIND_QUEUE_FULL, null, dao.getClass().getSimpleName(), queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new DAOException(Errors.WRITE_BEHIND_QUEUE_FULL, e, dao.getClass().getSimpleName(), queue.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of the entities waiting in the queue.
+     *
+     * @return the queue depth.
+     */
+    public int getDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of the written entities.
+     *
+     * @return the number of the written entities.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Gets the number of the entities of the failed batches.
+     *
+     * @return the number of the entities of the failed batches.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the number of the entities rejected by the full queue.
+     *
+     * @return the number of the rejected entities.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of the written batches.
+     *
+     * @return the number of the batches.
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Closes the queue. The new entities are rejected and the method waits until the queued entities are written.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Close of the write-behind queue of the {} was interrupted, {} entities are not written",
+                    dao.getClass().getSimpleName(), queue.size());
+        }
+    }
+
+    /**
+     * The worker loop.
+     */
+    private void run() {
+        long interval = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry<T> first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Entry<T>> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + interval;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0 || !running) {
+                        break;
+                    }
+                    Entry<T> next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                // the worker drains the queue until the queue is closed
+                log.warn("Write-behind worker of the {} was interrupted", dao.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction. The traceable fields resolved in the {@code enqueue} are set before
+     * the write and the manual traceability of the entities is reset after the write and the failure handler.
+     *
+     * @param batch the batch.
+     */
+    private void write(List<Entry<T>> batch) {
+        List<T> entities = new ArrayList<>(batch.size());
+        batch.forEach(e -> entities.add(e.apply()));
+        try {
+            dao.create(entities);
+            written.add(entities.size());
+            batches.increment();
+        } catch (Exception e) {
+            failed.add(entities.size());
+            log.warn("Write-behind batch of the {} failed", dao.getClass().getSimpleName(), e);
+            try {
+                failureHandler.accept(entities);
+            } catch (Exception ex) {
+                log.error("Write-behind failure handler of the {} failed", dao.getClass().getSimpleName(), ex);
+            }
+        } finally {
+            batch.forEach(Entry::reset);
+        }
+    }
+
+    /**
+     * The queued entity with the traceable data of the producer.
+     *
+     * @param <T> the entity type.
+     */
+    private static final class Entry<T> {
+
+        /**
+         * The entity.
+         */
+        private final T entity;
+
+        /**
+         * The principal of the producer.
+         */
+        private final String principal;
+
+        /**
+         * The enqueue date or {@code null} if the entity is not traced by the queue.
+         */
+        private final LocalDateTime date;
+
+        /**
+         * {@code true} if the manual traceability is set by the queue.
+         */
+        private boolean manual;
+
+        /**
+         * The default constructor.
+         *
+         * @param entity the entity.
+         */
+        private Entry(T entity) {
+            this.entity = entity;
+            if (entity instanceof AbstractTraceableEntity && !((AbstractTraceableEntity<?>) entity).isControlTraceabilityManual()) {
+                this.principal = TraceableListener.getPrincipal();
+                this.date = LocalDateTime.now();
+            } else {
+                this.principal = null;
+                this.date = null;
+            }
+        }
+
+        /**
+         * Sets the traceable fields of the producer and the manual traceability of the entity.
+         *
+         * @return the entity.
+         */
+        private T apply() {
+            if (date != null) {
+                AbstractTraceableEntity<?> traceable = (AbstractTraceableEntity<?>) entity;
+                if (principal != null) {
+                    traceable.setCreationUser(principal);
+                    traceable.setModificationUser(principal);
+                }
+                traceable.setCreationDate(date);
+                traceable.setModificationDate(date);
+                traceable.setControlTraceabilityManual(true);
+                manual = true;
+            }
+            return entity;
+        }
+
+        /**
+         * Resets the manual traceability of the entity set by the queue.
+         */
+        private void reset() {
+            if (manual) {
+                ((AbstractTraceableEntity<?>) entity).setControlTraceabilityManual(false);
+                manual = false;
+            }
+        }
+    }
+
+    /**
+     * The error keys.
+     */
+    public enum Errors {
+
+        /**
+         * The queue is full.
+         */
+        WRITE_BEHIND_QUEUE_FULL,
+
+        /**
+         * The queue is closed.
+         */
+        WRITE_BEHIND_CLOSED;
+    }
+}
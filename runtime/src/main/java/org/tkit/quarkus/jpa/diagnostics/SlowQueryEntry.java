@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.diagnostics;
+
+import java.time.Instant;
+
+/**
+ * The entry of the slow query log.
+ */
+public class SlowQueryEntry {
+
+    /**
+     * The time of the query.
+     */
+    private final Instant time;
+
+    /**
+     * The entity name.
+     */
+    private final String entityName;
+
+    /**
+     * The caller DAO method.
+     */
+    private final String caller;
+
+    /**
+     * The normalized HQL query fingerprint.
+     */
+    private final String fingerprint;
+
+    /**
+     * The number of bind parameters.
+     */
+    private final int bindCount;
+
+    /**
+     * The number of returned rows or {@code -1} if unknown.
+     */
+    private final long rows;
+
+    /**
+     * The duration in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * The constructor.
+     *
+     * @param time        the time of the query.
+     * @param entityName  the entity name.
+     * @param caller      the caller DAO method.
+     * @param fingerprint the normalized query fingerprint.
+     * @param bindCount   the number of bind parameters.
+     * @param rows        the number of returned rows or {@code -1} if unknown.
+     * @param duration    the duration in milliseconds.
+     */
+    public SlowQueryEntry(Instant time, String entityName, String caller, String fingerprint, int bindCount, long rows, long duration) {
+        this.time = time;
+        this.entityName = entityName;
+        this.caller = caller;
+        this.fingerprint = fingerprint;
+        this.bindCount = bindCount;
+        this.rows = rows;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the time of the query.
+     *
+     * @return the time of the query.
+     */
+    public Instant getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the entity name.
+     *
+     * @return the entity name.
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * Gets the caller DAO method.
+     *
+     * @return the caller DAO method.
+     */
+    public String getCaller() {
+        return caller;
+    }
+
+    /**
+     * Gets the normalized query fingerprint.
+     *
+     * @return the normalized query fingerprint.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the number of bind parameters.
+     *
+     * @return the number of bind parameters.
+     */
+    public int getBindCount() {
+        return bindCount;
+    }
+
+    /**
+     * Gets the number of returned rows or {@code -1} if unknown.
+     *
+     * @return the number of returned rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the duration in milliseconds.
+     *
+     * @return the duration in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "SlowQueryEntry{" +
+                "e=" + entityName +
+                ",c=" + caller +
+                ",d=" + duration +
+                ",r=" + rows +
+                ",b=" + bindCount +
+                ",q=" + fingerprint +
+                '}';
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.diagnostics;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.Query;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * The slow query log of the DAO operations and paged queries.
+ * <p>
+ * The queries slower than the threshold are sampled, logged and stored in the bounded in-memory ring buffer
+ * with the normalized HQL query fingerprint, the number of bind parameters, the number of rows, the entity name
+ * and the caller DAO method. The log is configured by the properties:
+ * <ul>
+ * <li>{@code tkit.jpa.slow-query.enabled} - the slow query log is enabled (default {@code true})</li>
+ * <li>{@code tkit.jpa.slow-query.threshold} - the threshold in milliseconds (default 1000)</li>
+ * <li>{@code tkit.jpa.slow-query.sample-rate} - the rate of the recorded slow queries from 0.0 to 1.0 (default 1.0)</li>
+ * <li>{@code tkit.jpa.slow-query.buffer-size} - the size of the ring buffer (default 100)</li>
+ * </ul>
+ * The fingerprint is created from the HQL query string of the Hibernate query (for the criteria queries the HQL
+ * generated by Hibernate), not from the SQL statement sent to the database.
+ */
+@ApplicationScoped
+public class SlowQueryLog {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    /**
+     * The configuration prefix.
+     */
+    private static final String CONFIG_PREFIX = "tkit.jpa.slow-query.";
+
+    /**
+     * The string literal pattern.
+     */
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    /**
+     * The number literal pattern.
+     */
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+
+    /**
+     * The named or positional parameter pattern.
+     */
+    private static final Pattern PARAMETER = Pattern.compile("(?::\\w+|\\?\\d*)");
+
+    /**
+     * The in list pattern.
+     */
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    /**
+     * The white space pattern.
+     */
+    private static final Pattern WHITE_SPACE = Pattern.compile("\\s+");
+
+    /**
+     * The enabled flag.
+     */
+    private boolean enabled;
+
+    /**
+     * The threshold in nanoseconds.
+     */
+    private long threshold;
+
+    /**
+     * The sample rate.
+     */
+    private double sampleRate;
+
+    /**
+     * The ring buffer.
+     */
+    private AtomicReferenceArray<SlowQueryEntry> buffer;
+
+    /**
+     * The number of recorded entries.
+     */
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * Initialize the slow query log.
+     */
+    @PostConstruct
+    public void init() {
+        Config config = ConfigProvider.getConfig();
+        enabled = config.getOptionalValue(CONFIG_PREFIX + "enabled", Boolean.class).orElse(true);
+        threshold = TimeUnit.MILLISECONDS.toNanos(config.getOptionalValue(CONFIG_PREFIX + "threshold", Long.class).orElse(1000L));
+        sampleRate = config.getOptionalValue(CONFIG_PREFIX + "sample-rate", Double.class).orElse(1.0);
+        buffer = new AtomicReferenceArray<>(Math.max(1, config.getOptionalValue(CONFIG_PREFIX + "buffer-size", Integer.class).orElse(100)));
+    }
+
+    /**
+     * Returns {@code true} if the slow query log is enabled.
+     *
+     * @return {@code true} if the slow query log is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the threshold.
+     *
+     * @param threshold the threshold in milliseconds.
+     */
+    public void setThreshold(long threshold) {
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+    }
+
+    /**
+     * Sets the sample rate.
+     *
+     * @param sampleRate the rate of the recorded slow queries from 0.0 to 1.0.
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Gets the start time of the query.
+     *
+     * @return the start time in nanoseconds or {@code 0} if the log is disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the query if the query is slower than the threshold.
+     *
+     * @param entityName the entity name.
+     * @param operation  the operation of the DAO or paged query.
+     * @param query      the executed query or {@code null}.
+     * @param start      the start time from the {@link #start()} method.
+     * @param rows       the number of returned rows or {@code -1} if unknown.
+     */
+    public void record(String entityName, String operation, Query query, long start, long rows) {
+        if (start == 0) {
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        if (duration < threshold) {
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String queryString = null;
+        int bindCount = 0;
+        if (query != null) {
+            try {
+                queryString = query.unwrap(org.hibernate.query.Query.class).getQueryString();
+                bindCount = query.getParameters().size();
+            } catch (Exception ex) {
+                log.debug("Query string of the slow query is not available", ex);
+            }
+        }
+        SlowQueryEntry entry = new SlowQueryEntry(Instant.now(), entityName, caller(operation), fingerprint(queryString),
+                bindCount, rows, TimeUnit.NANOSECONDS.toMillis(duration));
+        buffer.set((int) (recorded.getAndIncrement() % buffer.length()), entry);
+        log.warn("Slow query {}", entry);
+    }
+
+    /**
+     * Gets the entries of the ring buffer, the newest entry first.
+     *
+     * @return the list of the entries.
+     */
+    public List<SlowQueryEntry> getEntries() {
+        long last = recorded.get();
+        int size = (int) Math.min(last, buffer.length());
+        List<SlowQueryEntry> result = new ArrayList<>(size);
+        for (long i = last - 1; i >= last - size; i--) {
+            SlowQueryEntry entry = buffer.get((int) (i % buffer.length()));
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of all recorded entries.
+     *
+     * @return the number of all recorded entries.
+     */
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    /**
+     * Clears the ring buffer.
+     */
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+        recorded.set(0);
+    }
+
+    /**
+     * Creates the fingerprint of the HQL query. The literals and parameters are replaced by {@code ?},
+     * the in-lists are collapsed and the white spaces normalized.
+     *
+     * @param query the HQL query string.
+     * @return the fingerprint of the query.
+     */
+    public static String fingerprint(String query) {
+        if (query == null) {
+            return null;
+        }
+        String tmp = STRING_LITERAL.matcher(query).replaceAll("?");
+        tmp = PARAMETER.matcher(tmp).replaceAll("?");
+        tmp = NUMBER_LITERAL.matcher(tmp).replaceAll("?");
+        tmp = IN_LIST.matcher(tmp).replaceAll("in (?)");
+        return WHITE_SPACE.matcher(tmp).replaceAll(" ").trim();
+    }
+
+    /**
+     * Finds the caller DAO method in the stack of the current thread. The generated CDI subclass and client proxy
+     * frames are reported as the DAO class, so the methods inherited from the {@link AbstractDAO} are reported
+     * as {@code UserDAO#findById}.
+     *
+     * @param operation the operation of the DAO or paged query.
+     * @return the caller DAO method or the operation if the operation is not called by the DAO method.
+     */
+    private static String caller(String operation) {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+                .walk(frames -> frames
+                        .filter(f -> AbstractDAO.class.isAssignableFrom(f.getDeclaringClass())
+                                && f.getDeclaringClass() != AbstractDAO.class)
+                        .findFirst()
+                        .map(f -> daoClass(f.getDeclaringClass()).getSimpleName() + "#" + methodName(f.getMethodName()))
+                        .orElse(operation));
+    }
+
+    /**
+     * Gets the DAO class of the generated CDI subclass or client proxy.
+     *
+     * @param c the class of the stack frame.
+     * @return the DAO class.
+     */
+    private static Class<?> daoClass(Class<?> c) {
+        Class<?> result = c;
+        while (isGenerated(result) && result.getSuperclass() != null && result.getSuperclass() != AbstractDAO.class) {
+            result = result.getSuperclass();
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code true} for the generated CDI subclass or client proxy.
+     *
+     * @param c the class.
+     * @return {@code true} for the generated class.
+     */
+    private static boolean isGenerated(Class<?> c) {
+        String name = c.getName();
+        return name.endsWith("_Subclass") || name.endsWith("_ClientProxy");
+    }
+
+    /**
+     * Gets the method name without the suffix of the generated forwarding method, for example {@code findById$$superforward1}.
+     *
+     * @param name the method name of the stack frame.
+     * @return the method name.
+     */
+    private static String methodName(String name) {
+        int index = name.indexOf("$$");
+        return index > 0 ? name.substring(0, index) : name;
+    }
+}
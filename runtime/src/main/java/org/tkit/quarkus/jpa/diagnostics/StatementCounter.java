@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.diagnostics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.enterprise.inject.spi.CDI;
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The counter of the executed statements.
+ * <p>
+ * The counter uses the hibernate statistics which have to be enabled by the property
+ * {@code quarkus.hibernate-orm.statistics=true}. The statistics are global for the persistence unit,
+ * the counter should be used in the tests or for the single operation.
+ * <pre>
+ * {@code
+ * StatementCounter counter = StatementCounter.start();
+ * userDAO.createPageQuery(Page.of(0, 100)).getPageResult();
+ * log.info("Statements {}, repeated {}", counter.getStatements(), counter.getRepeatedSelects());
+ * }
+ * </pre>
+ * The repeated selects are the entities fetched more than once by the separate select (N+1 pattern of the associations)
+ * and the queries executed more than once.
+ */
+public class StatementCounter {
+
+    /**
+     * The prefix of the entity fetch shape.
+     */
+    public static final String FETCH_PREFIX = "fetch ";
+
+    /**
+     * The statistics.
+     */
+    private final Statistics statistics;
+
+    /**
+     * The number of the prepared statements at start.
+     */
+    private long statements;
+
+    /**
+     * The shape counters at start.
+     */
+    private Map<String, Long> shapes;
+
+    /**
+     * The constructor.
+     *
+     * @param statistics the statistics.
+     */
+    private StatementCounter(Statistics statistics) {
+        this.statistics = statistics;
+        reset();
+    }
+
+    /**
+     * Starts the new statement counter for the default persistence unit.
+     *
+     * @return the new statement counter.
+     * @throws IllegalStateException if the hibernate statistics are disabled.
+     */
+    public static StatementCounter start() {
+        EntityManagerFactory emf = CDI.current().select(EntityManagerFactory.class).get();
+        return start(emf);
+    }
+
+    /**
+     * Starts the new statement counter for the entity manager factory.
+     *
+     * @param emf the entity manager factory.
+     * @return the new statement counter.
+     * @throws IllegalStateException if the hibernate statistics are disabled.
+     */
+    public static StatementCounter start(EntityManagerFactory emf) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("Hibernate statistics are disabled, set quarkus.hibernate-orm.statistics=true");
+        }
+        return new StatementCounter(statistics);
+    }
+
+    /**
+     * Resets the counter.
+     */
+    public void reset() {
+        statements = statistics.getPrepareStatementCount();
+        shapes = shapes();
+    }
+
+    /**
+     * Gets the number of the statements executed since the start or reset of the counter.
+     *
+     * @return the number of the statements.
+     */
+    public long getStatements() {
+        return statistics.getPrepareStatementCount() - statements;
+    }
+
+    /**
+     * Gets the statement shapes executed more than once since the start or reset of the counter.
+     *
+     * @return the map of the statement shape and the number of executions.
+     */
+    public Map<String, Long> getRepeatedSelects() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        shapes().forEach((shape, count) -> {
+            long delta = count - shapes.getOrDefault(shape, 0L);
+            if (delta > 1) {
+                result.put(shape, delta);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the current shape counters.
+     *
+     * @return the map of the statement shape and the number of executions.
+     */
+    private Map<String, Long> shapes() {
+        Map<String, Long> result = new HashMap<>();
+        for (String entity : statistics.getEntityNames()) {
+            result.put(FETCH_PREFIX + entity, statistics.getEntityStatistics(entity).getFetchCount());
+        }
+        for (String query : statistics.getQueries()) {
+            result.put(query, statistics.getQueryStatistics(query).getExecutionCount());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "StatementCounter{" +
+                "s=" + getStatements() +
+                ",r=" + getRepeatedSelects() +
+                '}';
+    }
+}
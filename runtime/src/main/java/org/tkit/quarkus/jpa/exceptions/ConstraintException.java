@@ -16,6 +16,8 @@
 package org.tkit.quarkus.jpa.exceptions;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The constraint exception.
@@ -27,6 +29,21 @@ public class ConstraintException extends DAOException {
      */
     private static final String PARAMETER = "constraint";
 
+    /**
+     * The constraint type.
+     */
+    private final ConstraintType type;
+
+    /**
+     * The constraint name.
+     */
+    private final String constraintName;
+
+    /**
+     * The constraint columns.
+     */
+    private final List<String> columns;
+
     /**
      * The default constructor.
      *
@@ -36,7 +53,26 @@ public class ConstraintException extends DAOException {
      * @param params      the exception parameters.
      */
     public ConstraintException(String constraints, Enum<?> messageKey, Throwable cause, Serializable... params) {
+        this(constraints, ConstraintType.OTHER, null, null, messageKey, cause, params);
+    }
+
+    /**
+     * The constructor with the structured constraint data.
+     *
+     * @param constraints    the constraints message.
+     * @param type           the constraint type.
+     * @param constraintName the constraint name or {@code null} if unknown.
+     * @param columns        the constraint columns or {@code null} if unknown.
+     * @param messageKey     the message key.
+     * @param cause          the cause exception.
+     * @param params         the exception parameters.
+     */
+    public ConstraintException(String constraints, ConstraintType type, String constraintName, List<String> columns,
+                               Enum<?> messageKey, Throwable cause, Serializable... params) {
         super(messageKey, cause, params);
+        this.type = type;
+        this.constraintName = constraintName;
+        this.columns = columns != null ? columns : Collections.emptyList();
         addParameter(PARAMETER, constraints);
     }
 
@@ -46,7 +82,34 @@ public class ConstraintException extends DAOException {
      * @return the constraints message.
      */
     public String getConstraints() {
-        return (String) namedParameters.get(PARAMETER);
+        return (String) getNamedParameter(PARAMETER);
+    }
+
+    /**
+     * Gets the constraint type.
+     *
+     * @return the constraint type.
+     */
+    public ConstraintType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the constraint name.
+     *
+     * @return the constraint name or {@code null} if unknown.
+     */
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    /**
+     * Gets the constraint columns.
+     *
+     * @return the list of constraint columns, empty if unknown.
+     */
+    public List<String> getColumns() {
+        return columns;
     }
 
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.exceptions;
+
+/**
+ * The type of the database constraint.
+ */
+public enum ConstraintType {
+
+    /**
+     * The unique constraint.
+     */
+    UNIQUE,
+
+    /**
+     * The foreign key constraint.
+     */
+    FOREIGN_KEY,
+
+    /**
+     * The not null constraint.
+     */
+    NOT_NULL,
+
+    /**
+     * The check constraint.
+     */
+    CHECK,
+
+    /**
+     * The exclusion constraint.
+     */
+    EXCLUSION,
+
+    /**
+     * Other integrity constraint.
+     */
+    OTHER;
+
+    /**
+     * The SQL state class of the integrity constraint violation.
+     */
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    /**
+     * Gets the constraint type for the SQL state and vendor error code.
+     *
+     * @param sqlState  the SQL state.
+     * @param errorCode the vendor error code.
+     * @return the constraint type or {@code null} if the error is not constraint violation.
+     */
+    public static ConstraintType of(String sqlState, int errorCode) {
+        if (sqlState != null) {
+            if (!sqlState.startsWith(INTEGRITY_CONSTRAINT_VIOLATION)) {
+                return null;
+            }
+            switch (sqlState) {
+                case "23505":
+                    return UNIQUE;
+                case "23503":
+                    return FOREIGN_KEY;
+                case "23502":
+                    return NOT_NULL;
+                case "23514":
+                    return CHECK;
+                case "23P01":
+                    return EXCLUSION;
+                default:
+                    break;
+            }
+        }
+        // vendor error codes of the databases with generic SQL state 23000 (Oracle, MySQL)
+        switch (errorCode) {
+            case 1:
+            case 1062:
+                return UNIQUE;
+            case 2291:
+            case 2292:
+            case 1451:
+            case 1452:
+                return FOREIGN_KEY;
+            case 1400:
+            case 1048:
+                return NOT_NULL;
+            case 2290:
+            case 3819:
+                return CHECK;
+            default:
+                break;
+        }
+        return sqlState != null ? OTHER : null;
+    }
+}
@@ -17,29 +17,52 @@ package org.tkit.quarkus.jpa.exceptions;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The exception class for service exception with localized message.
+ * <p>
+ * The exception is designed for the expected failures on the hot path. The parameter containers are allocated
+ * with the first parameter, the message is rendered in the {@link #getMessage()} method and the stack trace
+ * could be disabled for the well-known keys with {@link #disableStackTrace(Enum[])}.
  */
 public class DAOException extends RuntimeException {
 
+    /**
+     * The keys with disabled stack trace.
+     */
+    private static final Set<Enum<?>> STACK_TRACE_DISABLED = ConcurrentHashMap.newKeySet();
+
     /**
      * The key of resource.
      */
     public final Enum<?> key;
 
     /**
-     * The arguments for the message.
+     * The arguments for the message or {@code null} if there is no parameter yet.
+     */
+    private List<Object> parameters;
+
+    /**
+     * The name parameters or {@code null} if there is no parameter yet.
+     */
+    private Map<String, Object> namedParameters;
+
+    /**
+     * The rendered message.
      */
-    public final List<Object> parameters = new ArrayList<>();
+    private transient String message;
 
     /**
-     * The name parameters.
+     * The flag of the parameter containers returned by the getters. The returned containers could be changed
+     * by the caller, so the message is not cached anymore.
      */
-    public final Map<String, Object> namedParameters = new HashMap<>();
+    private transient boolean exposed;
 
     /**
      * The constructor with the resource key and cause.
@@ -49,10 +72,44 @@ public class DAOException extends RuntimeException {
      * @param cause      the throw able cause.
      */
     public DAOException(final Enum<?> key, final Throwable cause, Object... parameters) {
-        super(cause);
+        this(key, cause, !STACK_TRACE_DISABLED.contains(key), parameters);
+    }
+
+    /**
+     * The constructor with the resource key, cause and stack trace flag.
+     *
+     * @param key                the resource key.
+     * @param cause              the throw able cause.
+     * @param writableStackTrace the stack trace flag. If {@code false} the stack trace is not filled.
+     * @param parameters         the resource key arguments.
+     */
+    protected DAOException(final Enum<?> key, final Throwable cause, boolean writableStackTrace, Object... parameters) {
+        super(null, cause, true, writableStackTrace);
         this.key = key;
         if (parameters != null && parameters.length > 0) {
-            this.parameters.addAll(Arrays.asList(parameters));
+            this.parameters = new ArrayList<>(Arrays.asList(parameters));
+        }
+    }
+
+    /**
+     * Disables the stack trace of the exceptions with the keys.
+     *
+     * @param keys the keys of the well-known exceptions.
+     */
+    public static void disableStackTrace(Enum<?>... keys) {
+        if (keys != null) {
+            STACK_TRACE_DISABLED.addAll(Arrays.asList(keys));
+        }
+    }
+
+    /**
+     * Enables the stack trace of the exceptions with the keys.
+     *
+     * @param keys the keys of the exceptions.
+     */
+    public static void enableStackTrace(Enum<?>... keys) {
+        if (keys != null) {
+            STACK_TRACE_DISABLED.removeAll(Arrays.asList(keys));
         }
     }
 
@@ -62,7 +119,16 @@ public class DAOException extends RuntimeException {
      */
     @Override
     public String getMessage() {
-        return key.getClass().getSimpleName() + ",key:" + key.name() + ",parameters:" + parameters + ",namedParameters:" + namedParameters;
+        String result = message;
+        if (result == null) {
+            result = key.getClass().getSimpleName() + ",key:" + key.name()
+                    + ",parameters:" + (parameters == null ? Collections.emptyList() : parameters)
+                    + ",namedParameters:" + (namedParameters == null ? Collections.emptyMap() : namedParameters);
+            if (!exposed) {
+                message = result;
+            }
+        }
+        return result;
     }
 
     /**
@@ -74,13 +140,43 @@ public class DAOException extends RuntimeException {
         return key;
     }
 
+    /**
+     * Gets the parameters. The list is allocated on the first call and could be changed by the caller.
+     *
+     * @return the list of parameters.
+     */
+    public List<Object> getParameters() {
+        exposed = true;
+        return mutableParameters();
+    }
+
+    /**
+     * Gets the named parameters. The map is allocated on the first call and could be changed by the caller.
+     *
+     * @return the map of named parameters.
+     */
+    public Map<String, Object> getNamedParameters() {
+        exposed = true;
+        return mutableNamedParameters();
+    }
+
+    /**
+     * Gets the named parameter without the allocation of the map. The rendered message stays cached.
+     *
+     * @param name the named parameter key.
+     * @return the parameter value or {@code null}.
+     */
+    protected Object getNamedParameter(String name) {
+        return namedParameters == null ? null : namedParameters.get(name);
+    }
+
     /**
      * Adds the parameter.
      *
      * @param parameter the parameter.
      */
     public final void addParameter(Object parameter) {
-        parameters.add(parameter);
+        mutableParameters().add(parameter);
     }
 
     /**
@@ -88,8 +184,8 @@ public class DAOException extends RuntimeException {
      * @param parameters the list of parameters.
      */
     public final void addParameter(List<Object> parameters) {
-        if (parameters != null) {
-            this.parameters.addAll(parameters);
+        if (parameters != null && !parameters.isEmpty()) {
+            mutableParameters().addAll(parameters);
         }
     }
 
@@ -101,7 +197,7 @@ public class DAOException extends RuntimeException {
      */
     public final void addParameter(String name, Object parameter) {
         if (name != null) {
-            namedParameters.put(name, parameter);
+            mutableNamedParameters().put(name, parameter);
         }
     }
 
@@ -111,9 +207,35 @@ public class DAOException extends RuntimeException {
      * @param namedParameters the map of named parameters.
      */
     public final void addParameter(Map<String, Object> namedParameters) {
-        if (namedParameters != null) {
-            this.namedParameters.putAll(namedParameters);
+        if (namedParameters != null && !namedParameters.isEmpty()) {
+            mutableNamedParameters().putAll(namedParameters);
+        }
+    }
+
+    /**
+     * Gets the mutable list of parameters and resets the rendered message.
+     *
+     * @return the mutable list of parameters.
+     */
+    private List<Object> mutableParameters() {
+        if (parameters == null) {
+            parameters = new ArrayList<>();
+        }
+        message = null;
+        return parameters;
+    }
+
+    /**
+     * Gets the mutable map of named parameters and resets the rendered message.
+     *
+     * @return the mutable map of named parameters.
+     */
+    private Map<String, Object> mutableNamedParameters() {
+        if (namedParameters == null) {
+            namedParameters = new HashMap<>();
         }
+        message = null;
+        return namedParameters;
     }
 
     /**
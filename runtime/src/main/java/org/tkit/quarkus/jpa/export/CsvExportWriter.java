@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The CSV export writer (RFC 4180).
+ * <p>
+ * The columns are defined by the name and the value function of the row. The values are converted
+ * with the {@code toString} method and quoted if they contain the separator, the quote or the line break.
+ * <pre>
+ * {@code
+ * CsvExportWriter<User> writer = new CsvExportWriter<User>()
+ *         .column("name", User::getName)
+ *         .column("email", User::getEmail);
+ * }
+ * </pre>
+ *
+ * @param <R> the type of the row.
+ */
+public class CsvExportWriter<R> implements ExportWriter<R> {
+
+    /**
+     * The default separator.
+     */
+    public static final char DEFAULT_SEPARATOR = ',';
+
+    /**
+     * The quote character.
+     */
+    private static final char QUOTE = '"';
+
+    /**
+     * The line separator.
+     */
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    /**
+     * The column names.
+     */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * The column value functions.
+     */
+    private final List<Function<R, Object>> values = new ArrayList<>();
+
+    /**
+     * The separator.
+     */
+    private final char separator;
+
+    /**
+     * The header flag.
+     */
+    private boolean header = true;
+
+    /**
+     * The writer.
+     */
+    private Writer writer;
+
+    /**
+     * The default constructor.
+     */
+    public CsvExportWriter() {
+        this(DEFAULT_SEPARATOR);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param separator the separator of the values.
+     */
+    public CsvExportWriter(char separator) {
+        this.separator = separator;
+    }
+
+    /**
+     * Adds the column.
+     *
+     * @param name  the column name.
+     * @param value the column value function.
+     * @return the CSV export writer.
+     */
+    public CsvExportWriter<R> column(String name, Function<R, Object> value) {
+        names.add(name);
+        values.add(value);
+        return this;
+    }
+
+    /**
+     * Sets the header flag. The header with the column names is written by default.
+     *
+     * @param header the header flag.
+     * @return the CSV export writer.
+     */
+    public CsvExportWriter<R> header(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open(OutputStream out) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (header) {
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    writer.write(separator);
+                }
+                writeValue(names.get(i));
+            }
+            writer.write(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(R row) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(separator);
+            }
+            Object value = values.get(i).apply(row);
+            if (value != null) {
+                writeValue(value.toString());
+            }
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the value and quotes the value if required.
+     *
+     * @param value the value.
+     * @throws IOException if the method fails.
+     */
+    private void writeValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == separator || c == QUOTE || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.export;
+
+/**
+ * The result of the export.
+ */
+public class ExportResult {
+
+    /**
+     * The number of the exported rows.
+     */
+    private final long rows;
+
+    /**
+     * The duration of the export in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * The constructor.
+     *
+     * @param rows     the number of the exported rows.
+     * @param duration the duration of the export in milliseconds.
+     */
+    public ExportResult(long rows, long duration) {
+        this.rows = rows;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the number of the exported rows.
+     *
+     * @return the number of the exported rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the duration of the export in milliseconds.
+     *
+     * @return the duration of the export in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the throughput of the export in rows per second.
+     *
+     * @return the throughput of the export in rows per second.
+     */
+    public long getRowsPerSecond() {
+        return duration > 0 ? rows * 1000 / duration : rows;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "rows=" + rows +
+                ",duration=" + duration +
+                ",rowsPerSecond=" + getRowsPerSecond() +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The export writer writes the exported rows to the output stream.
+ * <p>
+ * The writer instance is used for one export. The export calls {@link #open(OutputStream)} once,
+ * {@link #write(Object)} for each row and {@link #close()} at the end of the export.
+ *
+ * @param <R> the type of the row.
+ * @see CsvExportWriter
+ * @see NdjsonExportWriter
+ */
+public interface ExportWriter<R> {
+
+    /**
+     * Opens the writer for the output stream.
+     *
+     * @param out the output stream.
+     * @throws IOException if the method fails.
+     */
+    void open(OutputStream out) throws IOException;
+
+    /**
+     * Writes the row.
+     *
+     * @param row the row.
+     * @throws IOException if the method fails.
+     */
+    void write(R row) throws IOException;
+
+    /**
+     * Flushes the written rows to the output stream. The output stream is not closed.
+     *
+     * @throws IOException if the method fails.
+     */
+    void close() throws IOException;
+}
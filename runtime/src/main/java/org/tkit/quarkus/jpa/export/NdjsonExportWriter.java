@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The newline delimited JSON (NDJSON) export writer. Each row is written as JSON object on the separate line.
+ * <p>
+ * The writer requires the jackson library ({@code quarkus-resteasy-jackson} or {@code quarkus-jackson} extension).
+ *
+ * @param <R> the type of the row.
+ */
+public class NdjsonExportWriter<R> implements ExportWriter<R> {
+
+    /**
+     * The object writer.
+     */
+    private final ObjectWriter objectWriter;
+
+    /**
+     * The object mapper.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * The JSON generator.
+     */
+    private JsonGenerator generator;
+
+    /**
+     * The constructor.
+     *
+     * @param mapper the object mapper.
+     */
+    public NdjsonExportWriter(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.objectWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open(OutputStream out) throws IOException {
+        generator = mapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // the rows are separated by the new line only, not by the default root value separator (space)
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(R row) throws IOException {
+        objectWriter.writeValue(generator, row);
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.metamodel;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable descriptor of the entity created at build time from the mapping annotations.
+ * <p>
+ * The descriptor describes the field mapping of the entity class and its mapped super classes: the ID attribute
+ * and type, the version attribute, the table, the columns of the basic attributes and the association attributes.
+ * The columns are the names of the {@code @Column} and {@code @JoinColumn} annotations or the attribute names,
+ * the naming strategy of the persistence unit is not applied.
+ *
+ * @see EntityDescriptors
+ */
+public final class EntityDescriptor {
+
+    /**
+     * The entity class name.
+     */
+    private final String entityClass;
+
+    /**
+     * The entity name.
+     */
+    private final String entityName;
+
+    /**
+     * The ID attribute name.
+     */
+    private final String idAttribute;
+
+    /**
+     * The ID type class name.
+     */
+    private final String idType;
+
+    /**
+     * The ID attribute paths in the declaration order of the fields.
+     */
+    private final List<String> idAttributes;
+
+    /**
+     * The version attribute name or {@code null}.
+     */
+    private final String versionAttribute;
+
+    /**
+     * The table name.
+     */
+    private final String table;
+
+    /**
+     * The columns of the attributes.
+     */
+    private final Map<String, String> columns;
+
+    /**
+     * The association attributes.
+     */
+    private final List<String> associations;
+
+    /**
+     * The default constructor.
+     *
+     * @param entityClass      the entity class name.
+     * @param entityName       the entity name.
+     * @param idAttribute      the ID attribute name.
+     * @param idType           the ID type class name.
+     * @param idAttributes     the ID attribute paths in the declaration order of the fields.
+     * @param versionAttribute the version attribute name or {@code null}.
+     * @param table            the table name.
+     * @param columns          the columns of the attributes.
+     * @param associations     the association attributes.
+     */
+    public EntityDescriptor(String entityClass, String entityName, String idAttribute, String idType, List<String> idAttributes,
+                            String versionAttribute, String table, Map<String, String> columns, List<String> associations) {
+        this.entityClass = entityClass;
+        this.entityName = entityName;
+        this.idAttribute = idAttribute;
+        this.idType = idType;
+        this.idAttributes = List.copyOf(idAttributes);
+        this.versionAttribute = versionAttribute;
+        this.table = table;
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(columns));
+        this.associations = List.copyOf(associations);
+    }
+
+    /**
+     * Gets the entity class name.
+     *
+     * @return the entity class name.
+     */
+    public String getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Gets the entity name.
+     *
+     * @return the entity name.
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * Gets the ID attribute name.
+     *
+     * @return the ID attribute name.
+     */
+    public String getIdAttribute() {
+        return idAttribute;
+    }
+
+    /**
+     * Gets the ID type class name.
+     *
+     * @return the ID type class name.
+     */
+    public String getIdType() {
+        return idType;
+    }
+
+    /**
+     * Gets the ID attribute paths in the declaration order of the fields (the super class fields first). The single ID
+     * has one path, the embedded ID has the paths of the embeddable attributes ({@code id.code}) and the
+     * {@code @IdClass} ID has the entity ID attributes.
+     *
+     * @return the unmodifiable list of the ID attribute paths.
+     */
+    public List<String> getIdAttributes() {
+        return idAttributes;
+    }
+
+    /**
+     * Returns {@code true} if the entity ID has more than one column.
+     *
+     * @return {@code true} if the entity ID has more than one column.
+     */
+    public boolean isCompositeId() {
+        return idAttributes.size() > 1;
+    }
+
+    /**
+     * Returns {@code true} if the composite ID is mapped by the ID attributes of the entity ({@code @IdClass})
+     * and there is no single ID attribute.
+     *
+     * @return {@code true} if the composite ID is mapped by the ID attributes of the entity.
+     */
+    public boolean isIdClass() {
+        return isCompositeId() && (idAttribute == null || idAttribute.isEmpty());
+    }
+
+    /**
+     * Gets the version attribute name.
+     *
+     * @return the version attribute name or {@code null} if the entity is not versioned.
+     */
+    public String getVersionAttribute() {
+        return versionAttribute;
+    }
+
+    /**
+     * Returns {@code true} if the entity has the version attribute.
+     *
+     * @return {@code true} if the entity has the version attribute.
+     */
+    public boolean isVersioned() {
+        return versionAttribute != null;
+    }
+
+    /**
+     * Gets the table name.
+     *
+     * @return the table name.
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the columns of the attributes.
+     *
+     * @return the unmodifiable map of the attribute name and the column name.
+     */
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the column of the attribute.
+     *
+     * @param attribute the attribute name.
+     * @return the column name or {@code null}.
+     */
+    public String getColumn(String attribute) {
+        return columns.get(attribute);
+    }
+
+    /**
+     * Gets the association attributes.
+     *
+     * @return the unmodifiable list of the association attribute names.
+     */
+    public List<String> getAssociations() {
+        return associations;
+    }
+
+    /**
+     * Returns {@code true} if the attribute is the association.
+     *
+     * @param attribute the attribute name.
+     * @return {@code true} if the attribute is the association.
+     */
+    public boolean isAssociation(String attribute) {
+        return associations.contains(attribute);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public String toString() {
+        return "EntityDescriptor{" +
+                "e=" + entityName +
+                ",t=" + table +
+                ",id=" + idAttribute +
+                '}';
+    }
+}
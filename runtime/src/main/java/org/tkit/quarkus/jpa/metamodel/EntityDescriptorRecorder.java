@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.metamodel;
+
+import io.quarkus.runtime.annotations.Recorder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The recorder of the entity descriptors.
+ */
+@Recorder
+public class EntityDescriptorRecorder {
+
+    /**
+     * Registers the entity descriptor.
+     *
+     * @param entityClass      the entity class name.
+     * @param entityName       the entity name.
+     * @param idAttribute      the ID attribute name.
+     * @param idType           the ID type class name.
+     * @param idAttributes     the ID attribute paths in the key order.
+     * @param versionAttribute the version attribute name or empty string.
+     * @param table            the table name.
+     * @param columns          the columns of the attributes.
+     * @param associations     the association attributes.
+     */
+    public void register(String entityClass, String entityName, String idAttribute, String idType, List<String> idAttributes,
+                         String versionAttribute, String table, Map<String, String> columns, List<String> associations) {
+        EntityDescriptors.register(new EntityDescriptor(entityClass, entityName, idAttribute, idType, idAttributes,
+                versionAttribute == null || versionAttribute.isEmpty() ? null : versionAttribute,
+                table, columns, associations));
+    }
+}
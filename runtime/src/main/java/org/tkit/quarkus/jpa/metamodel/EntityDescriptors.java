@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.metamodel;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the entity descriptors recorded at build time.
+ */
+public final class EntityDescriptors {
+
+    /**
+     * The descriptors by the entity class name.
+     */
+    private static final Map<String, EntityDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+
+    /**
+     * The default constructor.
+     */
+    private EntityDescriptors() {
+        // empty constructor
+    }
+
+    /**
+     * Registers the entity descriptor.
+     *
+     * @param descriptor the entity descriptor.
+     */
+    static void register(EntityDescriptor descriptor) {
+        DESCRIPTORS.put(descriptor.getEntityClass(), descriptor);
+    }
+
+    /**
+     * Gets the descriptor of the entity class.
+     *
+     * @param entityClass the entity class.
+     * @return the entity descriptor or {@code null}.
+     */
+    public static EntityDescriptor get(Class<?> entityClass) {
+        return entityClass == null ? null : DESCRIPTORS.get(entityClass.getName());
+    }
+
+    /**
+     * Gets the descriptor of the entity class name.
+     *
+     * @param entityClass the entity class name.
+     * @return the entity descriptor or {@code null}.
+     */
+    public static EntityDescriptor get(String entityClass) {
+        return entityClass == null ? null : DESCRIPTORS.get(entityClass);
+    }
+
+    /**
+     * Gets all entity descriptors.
+     *
+     * @return the unmodifiable collection of the entity descriptors.
+     */
+    public static Collection<EntityDescriptor> getAll() {
+        return Collections.unmodifiableCollection(DESCRIPTORS.values());
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.models;
+
+import org.tkit.quarkus.jpa.utils.UUIDv7Util;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The outbox event persisted in the same transaction as the entity change.
+ * <p>
+ * The event ID is the time-ordered UUID (version 7) and the relay reads the events in the order of the ID.
+ * The application defines the outbox table by the entity class which extends this class.
+ * <pre>
+ * {@code
+ * @Entity
+ * @Table(name = "T_OUTBOX")
+ * public class OutboxEvent extends AbstractOutboxEvent {
+ * }
+ * }
+ * </pre>
+ */
+@MappedSuperclass
+public abstract class AbstractOutboxEvent implements Serializable {
+
+    /**
+     * The UID of this class.
+     */
+    private static final long serialVersionUID = 4529113436410390347L;
+
+    /**
+     * The event ID.
+     */
+    @Id
+    @Column(name = "GUID")
+    private UUID id;
+
+    /**
+     * The aggregate type, the name of the entity.
+     */
+    @Column(name = "AGGREGATE_TYPE", nullable = false)
+    private String aggregateType;
+
+    /**
+     * The aggregate ID, the ID of the entity.
+     */
+    @Column(name = "AGGREGATE_ID")
+    private String aggregateId;
+
+    /**
+     * The event type.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private OutboxEventType eventType;
+
+    /**
+     * The event payload.
+     */
+    @Column(name = "PAYLOAD", length = 4000)
+    private String payload;
+
+    /**
+     * The creation date.
+     */
+    @Column(name = "CREATION_DATE", nullable = false)
+    private LocalDateTime creationDate;
+
+    /**
+     * Sets the ID and the creation date of the new event.
+     */
+    @PrePersist
+    protected void prePersist() {
+        if (id == null) {
+            id = UUIDv7Util.randomUUID();
+        }
+        if (creationDate == null) {
+            creationDate = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Gets the event ID.
+     *
+     * @return the event ID.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Sets the event ID.
+     *
+     * @param id the event ID.
+     */
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the aggregate type.
+     *
+     * @return the aggregate type.
+     */
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    /**
+     * Sets the aggregate type.
+     *
+     * @param aggregateType the aggregate type.
+     */
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    /**
+     * Gets the aggregate ID.
+     *
+     * @return the aggregate ID.
+     */
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    /**
+     * Sets the aggregate ID.
+     *
+     * @param aggregateId the aggregate ID.
+     */
+    public void setAggregateId(String aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    /**
+     * Gets the event type.
+     *
+     * @return the event type.
+     */
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Sets the event type.
+     *
+     * @param eventType the event type.
+     */
+    public void setEventType(OutboxEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    /**
+     * Gets the payload.
+     *
+     * @return the payload.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Sets the payload.
+     *
+     * @param payload the payload.
+     */
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the creation date.
+     *
+     * @return the creation date.
+     */
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    /**
+     * Sets the creation date.
+     *
+     * @param creationDate the creation date.
+     */
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    /**
+     * Overwrite the {@code toString} method for the logger.
+     *
+     * @return the className:ID:eventType
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ":" + id + ":" + eventType;
+    }
+}
@@ -61,6 +61,12 @@ public abstract class AbstractTraceableEntity<T> implements Serializable {
     @Transient
     protected boolean persisted;
 
+    /**
+     * {@code true} if the persisted flag was set explicitly.
+     */
+    @Transient
+    private boolean persistedSet;
+
     /**
      * The modification user data.
      */
@@ -157,31 +163,43 @@ public abstract class AbstractTraceableEntity<T> implements Serializable {
     }
 
     /**
-     * The entity life-cycle method.
+     * Generates the ID of the entity if it is not set yet. The method is called
+     * from {@link TraceableListener#prePersist(AbstractTraceableEntity)} and could be called
+     * before persist when the ID of the new entity is needed, for example as the shard key.
+     */
+    public void generateId() {
+        // no generated ID by default
+    }
+
+    /**
+     * Marks the entity as persisted.
      */
-    @PostLoad
-    @PostUpdate
-    @PostPersist
     public void checkPersistentState() {
-        this.persisted = true;
+        setPersisted(true);
     }
 
     /**
      * Gets the {@code true} if the entity is persisted.
+     * <p>
+     * The flag set by {@link #setPersisted(boolean)} or {@link #checkPersistentState()} is returned if it was set.
+     * Otherwise the persisted state is derived from the optimistic lock version, which is set by the persistence
+     * provider when the entity is persisted or loaded. There is no entity life-cycle callback on the read path,
+     * so the detached entity or the copy with the version reports itself as persisted until the flag is set.
      *
      * @return {@code true} if the entity is persisted.
      */
     public boolean isPersisted() {
-        return persisted;
+        return persistedSet ? persisted : version != null;
     }
 
     /**
-     * Sets the persisted flag.
+     * Sets the persisted flag. The flag overrides the persisted state derived from the version.
      *
      * @param persisted the persisted flag.
      */
     public void setPersisted(boolean persisted) {
         this.persisted = persisted;
+        this.persistedSet = true;
     }
 
 }
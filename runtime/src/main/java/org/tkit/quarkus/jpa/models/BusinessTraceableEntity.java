@@ -34,7 +34,7 @@ import java.util.Objects;
  * </pre>
  *
  *
- * @deprecated use {@link TraceableEntity}
+ * @deprecated use {@link TraceableEntity} or {@link SequenceTraceableEntity} for the numeric ID
  */
 @Deprecated(forRemoval = true, since = "2.8.0")
 @MappedSuperclass
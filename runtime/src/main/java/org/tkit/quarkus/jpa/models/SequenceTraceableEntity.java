@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.models;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+/**
+ * The persistent entity with numeric ID generated by the database sequence.
+ * <p>
+ * The sequence {@code <entity-name>_SEQ} is used with the {@code pooled-lo} optimizer, so one sequence call
+ * allocates the IDs for the whole block of the inserts and the JDBC batching
+ * ({@code quarkus.hibernate-orm.jdbc.statement-batch-size}) stays enabled.
+ *
+ * @see TraceableSequenceGenerator
+ */
+@MappedSuperclass
+public class SequenceTraceableEntity extends AbstractTraceableEntity<Long> {
+
+    /**
+     * The UID for this class.
+     */
+    private static final long serialVersionUID = 5113606482163520917L;
+
+    /**
+     * The generator name.
+     */
+    private static final String GENERATOR = "GEN_TRACEABLE_ID";
+
+    /**
+     * Numeric ID of entity
+     */
+    @Id
+    @Column(name = "ID")
+    @GeneratedValue(generator = GENERATOR)
+    @GenericGenerator(name = GENERATOR, strategy = TraceableSequenceGenerator.STRATEGY)
+    private Long id;
+
+    /**
+     * The hash code of the assigned ID or {@code 0} if it is not computed yet.
+     */
+    private transient int hash;
+
+    /**
+     * Gets the ID.
+     *
+     * @return the ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID.
+     *
+     * @param id the new ID.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        SequenceTraceableEntity other = (SequenceTraceableEntity) obj;
+        Object id = getId();
+        Object otherId = other.getId();
+
+        if (id == null) {
+            if (otherId != null) {
+                return false;
+            } else {
+                return super.equals(obj);
+            }
+        } else return id.equals(otherId);
+    }
+
+    /**
+     * {@inheritDoc }
+     * <p>
+     * The hash code of the ID is computed with the first call after the ID is assigned and kept for the lifetime
+     * of the instance, the change of the ID does not move the entity in the hash based collections. The entity
+     * without ID has the class hash code (all new entities are in the same hash bucket), the hash code changes
+     * when the ID is assigned on persist. Assign the ID before the new entity is added to the hash based collection.
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            Object value = getId();
+            if (value == null) {
+                return getClass().hashCode();
+            }
+            result = value.hashCode();
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Overwrite the {@code toString} method for the logger.
+     * @return the className:ID
+     */
+    @Override
+    public String toString() {
+        return SequenceTraceableEntity.class.getSimpleName() + ":" + getId();
+    }
+}
@@ -15,7 +15,6 @@
  */
 package org.tkit.quarkus.jpa.models;
 
-import java.util.Objects;
 import java.util.UUID;
 
 import javax.persistence.Column;
@@ -39,10 +38,16 @@ public class TraceableEntity extends AbstractTraceableEntity<String> {
      */
     @Id
     @Column(name = "GUID")
-    private String id = UUID.randomUUID().toString();
+    private String id;
 
     /**
-     * Gets the GUID.
+     * The hash code of the assigned ID or {@code 0} if it is not computed yet.
+     */
+    private transient int hash;
+
+    /**
+     * Gets the GUID. The GUID of the new entity is {@code null} until the entity is persisted
+     * or {@link #generateId()} is called.
      *
      * @return the GUID.
      */
@@ -59,8 +64,21 @@ public class TraceableEntity extends AbstractTraceableEntity<String> {
         this.id = id;
     }
 
+    /**
+     * Generates the GUID if it is not set. The entities loaded from the database
+     * have the GUID already set and do not generate the new one.
+     */
+    @Override
+    public void generateId() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+    }
+
     /**
      * {@inheritDoc }
+     * <p>
+     * The entities are equal if they have the same GUID. The new entity without GUID is equal only to itself.
      *
      * @see java.lang.Object#equals(java.lang.Object)
      */
@@ -76,28 +94,30 @@ public class TraceableEntity extends AbstractTraceableEntity<String> {
             return false;
         }
         TraceableEntity other = (TraceableEntity) obj;
-        Object guid = getId();
-        Object otherGuid = other.getId();
-
-        if (guid == null) {
-            if (otherGuid != null) {
-                return false;
-            } else {
-                return super.equals(obj);
-            }
-        } else return guid.equals(otherGuid);
+        return id != null && id.equals(other.getId());
     }
 
     /**
      * {@inheritDoc }
+     * <p>
+     * The hash code of the ID is computed with the first call after the ID is assigned and kept for the lifetime
+     * of the instance, the change of the ID does not move the entity in the hash based collections. The entity
+     * without ID has the class hash code (all new entities are in the same hash bucket), the hash code changes
+     * when the ID is assigned on persist. Assign the ID before the new entity is added to the hash based collection.
      *
      * @see java.lang.Object#hashCode()
      */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + Objects.hashCode(getId());
+        int result = hash;
+        if (result == 0) {
+            Object value = id;
+            if (value == null) {
+                return getClass().hashCode();
+            }
+            result = value.hashCode();
+            hash = result;
+        }
         return result;
     }
 
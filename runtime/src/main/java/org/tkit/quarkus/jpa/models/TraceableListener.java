@@ -7,15 +7,52 @@ import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.spi.CDI;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
+import javax.transaction.TransactionSynchronizationRegistry;
 import java.io.Serializable;
 import java.security.Principal;
 import java.time.LocalDateTime;
 
 /**
+ * The traceable entity listener.
+ * <p>
+ * The principal and the date are resolved once per transaction and reused for all entities
+ * persisted or updated in this transaction.
+ *
  * @author msomora
  */
 public class TraceableListener implements Serializable {
-    
+
+    /**
+     * The transaction resource key of the traceable data.
+     */
+    private static final Object TRACEABLE_DATA_KEY = TraceableData.class.getName();
+
+    /**
+     * The principal provider of the current thread.
+     */
+    private static final ThreadLocal<TraceablePrincipalProvider> PRINCIPAL_PROVIDER = new ThreadLocal<>();
+
+    /**
+     * The transaction synchronization registry.
+     */
+    private transient volatile TransactionSynchronizationRegistry registry;
+
+    /**
+     * Sets the principal provider for the current thread.
+     *
+     * @param provider the principal provider.
+     */
+    public static void setPrincipalProvider(TraceablePrincipalProvider provider) {
+        PRINCIPAL_PROVIDER.set(provider);
+    }
+
+    /**
+     * Removes the principal provider of the current thread.
+     */
+    public static void removePrincipalProvider() {
+        PRINCIPAL_PROVIDER.remove();
+    }
+
     /**
      * Marks the entity as created.
      *
@@ -23,15 +60,15 @@ public class TraceableListener implements Serializable {
      */
     @PrePersist
     public void prePersist(AbstractTraceableEntity<?> entity) {
+        entity.generateId();
         if (!entity.isControlTraceabilityManual()) {
-            String user = getPrincipal();
-            if (user != null) {
-                entity.setCreationUser(user);
-                entity.setModificationUser(user);
+            TraceableData data = getTraceableData();
+            if (data.principal != null) {
+                entity.setCreationUser(data.principal);
+                entity.setModificationUser(data.principal);
             }
-            LocalDateTime date = LocalDateTime.now();
-            entity.setCreationDate(date);
-            entity.setModificationDate(date);
+            entity.setCreationDate(data.date);
+            entity.setModificationDate(data.date);
         }
     }
     
@@ -43,15 +80,61 @@ public class TraceableListener implements Serializable {
     @PreUpdate
     public void preUpdate(AbstractTraceableEntity<?> entity) {
         if (!entity.isControlTraceabilityManual()) {
-            String user = getPrincipal();
-            if (user != null) {
-                entity.setModificationUser(user);
+            TraceableData data = getTraceableData();
+            if (data.principal != null) {
+                entity.setModificationUser(data.principal);
             }
-            entity.setModificationDate(LocalDateTime.now());
+            entity.setModificationDate(data.date);
         }
     }
-    
-    private String getPrincipal() {
+
+    /**
+     * Gets the traceable data of the current transaction.
+     *
+     * @return the traceable data.
+     */
+    private TraceableData getTraceableData() {
+        TransactionSynchronizationRegistry tsr = getRegistry();
+        if (tsr != null && tsr.getTransactionKey() != null) {
+            TraceableData data = (TraceableData) tsr.getResource(TRACEABLE_DATA_KEY);
+            if (data == null) {
+                data = new TraceableData(getPrincipal(), LocalDateTime.now());
+                tsr.putResource(TRACEABLE_DATA_KEY, data);
+            }
+            return data;
+        }
+        return new TraceableData(getPrincipal(), LocalDateTime.now());
+    }
+
+    /**
+     * Gets the transaction synchronization registry.
+     *
+     * @return the transaction synchronization registry or {@code null}.
+     */
+    private TransactionSynchronizationRegistry getRegistry() {
+        TransactionSynchronizationRegistry result = registry;
+        if (result == null) {
+            Instance<TransactionSynchronizationRegistry> instance = CDI.current().select(TransactionSynchronizationRegistry.class);
+            if (instance.isResolvable()) {
+                result = instance.get();
+                registry = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the principal of the current thread. The principal provider of the thread is used first, then the
+     * principal of the request data and the CDI principal.
+     *
+     * @return the principal name or {@code null}.
+     */
+    public static String getPrincipal() {
+        TraceablePrincipalProvider provider = PRINCIPAL_PROVIDER.get();
+        if (provider != null) {
+            return provider.getPrincipal();
+        }
+
         final RequestData requestData = RequestDataContext.get();
         if (requestData != null) {
             return requestData.getPrincipal();
@@ -64,4 +147,31 @@ public class TraceableListener implements Serializable {
         
         return null;
     }
+
+    /**
+     * The traceable data of the transaction.
+     */
+    private static final class TraceableData {
+
+        /**
+         * The principal.
+         */
+        private final String principal;
+
+        /**
+         * The date.
+         */
+        private final LocalDateTime date;
+
+        /**
+         * The default constructor.
+         *
+         * @param principal the principal.
+         * @param date      the date.
+         */
+        private TraceableData(String principal, LocalDateTime date) {
+            this.principal = principal;
+            this.date = date;
+        }
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.models;
+
+/**
+ * The principal provider for the traceable fields {@code creationUser} and {@code modificationUser}.
+ * <p>
+ * The provider is bound to the current thread with
+ * {@link TraceableListener#setPrincipalProvider(TraceablePrincipalProvider)}, for example the batch job
+ * could use the fixed system user without any CDI lookup.
+ * <pre>
+ * {@code
+ *  TraceableListener.setPrincipalProvider(() -> "batch-job");
+ *  try {
+ *      dao.create(entities);
+ *  } finally {
+ *      TraceableListener.removePrincipalProvider();
+ *  }
+ * }
+ * </pre>
+ */
+@FunctionalInterface
+public interface TraceablePrincipalProvider {
+
+    /**
+     * Gets the principal name.
+     *
+     * @return the principal name or {@code null}.
+     */
+    String getPrincipal();
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.models;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.hibernate.MappingException;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * The sequence generator for the {@link SequenceTraceableEntity}.
+ * <p>
+ * Each entity has own sequence {@code <entity-name>_SEQ} and the {@code pooled-lo} optimizer, which
+ * allocates the block of the identifiers with one sequence call. The size of the block is configured by
+ * the property {@code tkit.jpa.sequence.increment-size} (default 50) or for the entity by
+ * {@code tkit.jpa.sequence.<entity-name>.increment-size}.
+ */
+public class TraceableSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * The generator strategy name.
+     */
+    public static final String STRATEGY = "org.tkit.quarkus.jpa.models.TraceableSequenceGenerator";
+
+    /**
+     * The configuration prefix.
+     */
+    private static final String CONFIG_PREFIX = "tkit.jpa.sequence.";
+
+    /**
+     * The increment size configuration key.
+     */
+    private static final String CONFIG_INCREMENT_SIZE = "increment-size";
+
+    /**
+     * The default increment size.
+     */
+    private static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        params.putIfAbsent(CONFIG_PREFER_SEQUENCE_PER_ENTITY, "true");
+        params.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        if (!params.containsKey(INCREMENT_PARAM)) {
+            params.setProperty(INCREMENT_PARAM, Integer.toString(getIncrementSize(params.getProperty(JPA_ENTITY_NAME))));
+        }
+        super.configure(type, params, serviceRegistry);
+    }
+
+    /**
+     * Gets the configured increment size for the entity.
+     *
+     * @param entityName the JPA entity name.
+     * @return the increment size.
+     */
+    private static int getIncrementSize(String entityName) {
+        Config config = ConfigProvider.getConfig();
+        return config.getOptionalValue(CONFIG_PREFIX + entityName + "." + CONFIG_INCREMENT_SIZE, Integer.class)
+                .orElseGet(() -> config.getOptionalValue(CONFIG_PREFIX + CONFIG_INCREMENT_SIZE, Integer.class)
+                        .orElse(DEFAULT_INCREMENT_SIZE));
+    }
+}
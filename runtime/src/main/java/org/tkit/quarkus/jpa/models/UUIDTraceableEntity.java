@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.models;
+
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+import org.tkit.quarkus.jpa.utils.UUIDv7Util;
+
+/**
+ * The persistent entity with time-ordered UUID (version 7) GUID.
+ * <p>
+ * The GUID is stored as native {@code uuid} type (16 bytes) on the databases which support it
+ * and the time ordering keeps the inserts at the end of the primary key index.
+ */
+@MappedSuperclass
+public class UUIDTraceableEntity extends AbstractTraceableEntity<UUID> {
+
+    /**
+     * The UID for this class.
+     */
+    private static final long serialVersionUID = -2416375209236384711L;
+
+    /**
+     * UUID of entity
+     */
+    @Id
+    @Column(name = "GUID")
+    private UUID id;
+
+    /**
+     * The hash code of the assigned ID or {@code 0} if it is not computed yet.
+     */
+    private transient int hash;
+
+    /**
+     * Gets the GUID. The GUID of the new entity is {@code null} until the entity is persisted
+     * or {@link #generateId()} is called.
+     *
+     * @return the GUID.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Sets the GUID.
+     *
+     * @param id the new GUID.
+     */
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    /**
+     * Generates the GUID if it is not set. The entities loaded from the database
+     * have the GUID already set and do not generate the new one.
+     */
+    @Override
+    public void generateId() {
+        if (id == null) {
+            id = UUIDv7Util.randomUUID();
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     * <p>
+     * The entities are equal if they have the same GUID. The new entity without GUID is equal only to itself.
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        UUIDTraceableEntity other = (UUIDTraceableEntity) obj;
+        return id != null && id.equals(other.getId());
+    }
+
+    /**
+     * {@inheritDoc }
+     * <p>
+     * The hash code of the ID is computed with the first call after the ID is assigned and kept for the lifetime
+     * of the instance, the change of the ID does not move the entity in the hash based collections. The entity
+     * without ID has the class hash code (all new entities are in the same hash bucket), the hash code changes
+     * when the ID is assigned on persist. Assign the ID before the new entity is added to the hash based collection.
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            Object value = id;
+            if (value == null) {
+                return getClass().hashCode();
+            }
+            result = value.hashCode();
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Overwrite the {@code toString} method for the logger.
+     * @return the className:ID
+     */
+    @Override
+    public String toString() {
+        return UUIDTraceableEntity.class.getSimpleName() + ":" + getId();
+    }
+}
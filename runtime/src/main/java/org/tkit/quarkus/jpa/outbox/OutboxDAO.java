@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.outbox;
+
+import org.hibernate.LockOptions;
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.models.AbstractOutboxEvent;
+
+import javax.persistence.LockModeType;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The DAO of the outbox events.
+ * <pre>
+ * {@code
+ * @ApplicationScoped
+ * public class OutboxEventDAO extends OutboxDAO<OutboxEvent> {
+ * }
+ * }
+ * </pre>
+ *
+ * @param <E> the outbox event type.
+ * @see OutboxRelay
+ */
+public abstract class OutboxDAO<E extends AbstractOutboxEvent> extends AbstractDAO<E> {
+
+    /**
+     * The lock timeout hint.
+     */
+    private static final String HINT_LOCK_TIMEOUT = "javax.persistence.lock.timeout";
+
+    /**
+     * Drains the batch of the oldest outbox events to the sink in the new transaction.
+     * <p>
+     * The events are selected with {@code FOR UPDATE SKIP LOCKED}, the events locked by another relay are skipped
+     * and the relays of several application instances drain the outbox in parallel. The events are deleted after
+     * the sink publishes them, the failure of the sink rolls back the transaction and keeps the events in the outbox.
+     *
+     * @param batchSize the max number of the events.
+     * @param sink      the sink of the events.
+     * @return the number of the published events.
+     * @throws DAOException if the method fails.
+     */
+    @Transactional(value = Transactional.TxType.REQUIRES_NEW, rollbackOn = DAOException.class)
+    public int drain(int batchSize, OutboxSink<E> sink) throws DAOException {
+        try {
+            CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+            CriteriaQuery<E> cq = criteriaQuery();
+            Root<E> root = cq.from(entityClass);
+            cq.orderBy(cb.asc(root.get(idAttributeName)));
+            List<E> events = getEntityManager().createQuery(cq)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .setHint(HINT_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+                    .setMaxResults(batchSize)
+                    .getResultList();
+            if (events.isEmpty()) {
+                return 0;
+            }
+            sink.publish(events);
+            deleteQueryByIds(events.stream().map(AbstractOutboxEvent::getId).collect(Collectors.toList()));
+            return events.size();
+        } catch (DAOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DAOException(Errors.OUTBOX_RELAY_FAILED, e, entityName, batchSize);
+        }
+    }
+}
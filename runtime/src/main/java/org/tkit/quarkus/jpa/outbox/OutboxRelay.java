@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.models.AbstractOutboxEvent;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The background relay of the outbox events.
+ * <p>
+ * The relay drains the outbox in batches on the single daemon thread. The outbox is drained until the batch is not full,
+ * then the relay waits for the interval. The failed batch is logged and retried after the interval.
+ * <pre>
+ * {@code
+ * OutboxRelay<OutboxEvent> relay = new OutboxRelay<>(outboxEventDAO, events -> producer.send(events), 100, 500);
+ * relay.start();
+ * ...
+ * relay.close();
+ * }
+ * </pre>
+ *
+ * @param <E> the outbox event type.
+ */
+public class OutboxRelay<E extends AbstractOutboxEvent> implements AutoCloseable {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    /**
+     * The outbox DAO.
+     */
+    private final OutboxDAO<E> dao;
+
+    /**
+     * The sink of the events.
+     */
+    private final OutboxSink<E> sink;
+
+    /**
+     * The batch size.
+     */
+    private final int batchSize;
+
+    /**
+     * The interval in milliseconds.
+     */
+    private final long interval;
+
+    /**
+     * The number of the published events.
+     */
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * The number of the failed batches.
+     */
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * The scheduler.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The default constructor.
+     *
+     * @param dao       the outbox DAO.
+     * @param sink      the sink of the events.
+     * @param batchSize the batch size.
+     * @param interval  the interval between the drains of the empty outbox in milliseconds.
+     */
+    public OutboxRelay(OutboxDAO<E> dao, OutboxSink<E> sink, int batchSize, long interval) {
+        if (batchSize < 1 || interval < 1) {
+            throw new IllegalArgumentException("The batch size and the interval must be positive");
+        }
+        this.dao = dao;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.interval = interval;
+    }
+
+    /**
+     * Starts the relay.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tkit-jpa-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::drainAll, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drains the outbox until the batch is not full.
+     *
+     * @return the number of the published events.
+     */
+    public long drainAll() {
+        long count = 0;
+        try {
+            int size;
+            do {
+                size = dao.drain(batchSize, sink);
+                count += size;
+                published.addAndGet(size);
+            } while (size == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.warn("Outbox relay of the {} failed, the events are retried in {} ms", dao.getClass().getSimpleName(), interval, e);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of the published events.
+     *
+     * @return the number of the published events.
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Gets the number of the failed batches.
+     *
+     * @return the number of the failed batches.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Stops the relay. The running batch is finished, the remaining events stay in the outbox.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(interval + 10_000, TimeUnit.MILLISECONDS)) {
+                    scheduler.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                scheduler.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+}
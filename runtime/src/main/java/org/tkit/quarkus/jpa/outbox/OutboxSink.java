@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.outbox;
+
+import org.tkit.quarkus.jpa.models.AbstractOutboxEvent;
+
+import java.util.List;
+
+/**
+ * The sink of the outbox events, for example the message broker producer.
+ * <p>
+ * The events are removed from the outbox after the sink returns successfully. The exception of the sink rolls back
+ * the relay transaction and the events are delivered again, the sink has to tolerate the duplicate events.
+ *
+ * @param <E> the outbox event type.
+ */
+@FunctionalInterface
+public interface OutboxSink<E extends AbstractOutboxEvent> {
+
+    /**
+     * Publishes the batch of the events in the order of the event ID.
+     *
+     * @param events the events.
+     * @throws Exception if the publishing fails.
+     */
+    void publish(List<E> events) throws Exception;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.rs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The resource method annotation of the {@link PageResultMessageBodyWriter}. The page result of the annotated method
+ * is written as the JSON array of the rows and the paging metadata are written only as the response headers.
+ * <pre>
+ * {@code
+ * @GET
+ * @PageResultHeaders
+ * public Response page(@QueryParam("index") int index, @QueryParam("size") int size) {
+ *     return Response.ok(userDAO.createPageQuery(Page.of(index, size)).getPageResult()).build();
+ * }
+ * }
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PageResultHeaders {
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.rs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.tkit.quarkus.jpa.daos.PageResult;
+
+import javax.enterprise.inject.spi.CDI;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * The JSON message body writer of the {@link PageResult}.
+ * <p>
+ * The writer streams the rows of the page result directly from the result stream (open database cursor)
+ * to the response and flushes the response every {@code tkit.jpa.rs.page-result.flush-size} rows (default 100).
+ * The rows are never collected to the list. The paging metadata are written as response headers
+ * ({@code totalElements}, {@code number}, {@code size}, {@code totalPages}) and as fields of the JSON object
+ * before the {@code stream} array of the rows. The resource method annotated with {@link PageResultHeaders} writes
+ * only the array of the rows, the paging metadata are in the headers.
+ * <p>
+ * The writer is registered by the extension if the {@code quarkus-resteasy-jackson} extension is present.
+ */
+@Produces(MediaType.APPLICATION_JSON)
+public class PageResultMessageBodyWriter implements MessageBodyWriter<PageResult<?>> {
+
+    /**
+     * The header of the count of all items.
+     */
+    public static final String HEADER_TOTAL_ELEMENTS = "totalElements";
+
+    /**
+     * The header of the page number.
+     */
+    public static final String HEADER_NUMBER = "number";
+
+    /**
+     * The header of the page size.
+     */
+    public static final String HEADER_SIZE = "size";
+
+    /**
+     * The header of the number of pages.
+     */
+    public static final String HEADER_TOTAL_PAGES = "totalPages";
+
+    /**
+     * The name of the rows array.
+     */
+    private static final String FIELD_STREAM = "stream";
+
+    /**
+     * The flush size configuration key.
+     */
+    private static final String CONFIG_FLUSH_SIZE = "tkit.jpa.rs.page-result.flush-size";
+
+    /**
+     * The default flush size.
+     */
+    private static final int DEFAULT_FLUSH_SIZE = 100;
+
+    /**
+     * The object mapper.
+     */
+    private volatile ObjectMapper mapper;
+
+    /**
+     * The number of rows between the flush of the response.
+     */
+    private final int flushSize;
+
+    /**
+     * The default constructor.
+     */
+    public PageResultMessageBodyWriter() {
+        int tmp = ConfigProvider.getConfig().getOptionalValue(CONFIG_FLUSH_SIZE, Integer.class).orElse(DEFAULT_FLUSH_SIZE);
+        flushSize = tmp > 0 ? tmp : DEFAULT_FLUSH_SIZE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return PageResult.class.isAssignableFrom(type) && MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeTo(PageResult<?> result, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+
+        httpHeaders.putSingle(HEADER_TOTAL_ELEMENTS, result.getTotalElements());
+        httpHeaders.putSingle(HEADER_NUMBER, result.getNumber());
+        httpHeaders.putSingle(HEADER_SIZE, result.getSize());
+        httpHeaders.putSingle(HEADER_TOTAL_PAGES, result.getTotalPages());
+
+        boolean headersOnly = isHeadersOnly(annotations);
+        ObjectMapper om = getObjectMapper();
+        ObjectWriter writer = om.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<?> stream = result.getStream();
+             JsonGenerator gen = om.getFactory().createGenerator(entityStream)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (headersOnly) {
+                gen.writeStartArray();
+            } else {
+                gen.writeStartObject();
+                gen.writeNumberField(HEADER_TOTAL_ELEMENTS, result.getTotalElements());
+                gen.writeNumberField(HEADER_NUMBER, result.getNumber());
+                gen.writeNumberField(HEADER_SIZE, result.getSize());
+                gen.writeNumberField(HEADER_TOTAL_PAGES, result.getTotalPages());
+                gen.writeArrayFieldStart(FIELD_STREAM);
+            }
+            if (stream != null) {
+                int count = 0;
+                Iterator<?> it = stream.iterator();
+                while (it.hasNext()) {
+                    writer.writeValue(gen, it.next());
+                    if (++count % flushSize == 0) {
+                        gen.flush();
+                    }
+                }
+            }
+            gen.writeEndArray();
+            if (!headersOnly) {
+                gen.writeEndObject();
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the resource method is annotated with {@link PageResultHeaders}.
+     *
+     * @param annotations the annotations of the resource method.
+     * @return {@code true} if only the rows are written to the body.
+     */
+    private static boolean isHeadersOnly(Annotation[] annotations) {
+        if (annotations != null) {
+            for (Annotation annotation : annotations) {
+                if (annotation.annotationType() == PageResultHeaders.class) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the application object mapper.
+     *
+     * @return the object mapper.
+     */
+    private ObjectMapper getObjectMapper() {
+        ObjectMapper tmp = mapper;
+        if (tmp == null) {
+            tmp = CDI.current().select(ObjectMapper.class).get();
+            mapper = tmp;
+        }
+        return tmp;
+    }
+}
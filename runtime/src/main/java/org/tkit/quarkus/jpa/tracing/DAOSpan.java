@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.tracing;
+
+/**
+ * The tracing span of the DAO operation.
+ *
+ * @see DAOTracer
+ */
+public interface DAOSpan extends AutoCloseable {
+
+    /**
+     * The span which does nothing, used if the tracing is disabled.
+     */
+    DAOSpan NOOP = new DAOSpan() {
+    };
+
+    /**
+     * Sets the attribute of the span.
+     *
+     * @param key   the attribute key.
+     * @param value the attribute value.
+     * @return the span.
+     */
+    default DAOSpan attribute(String key, long value) {
+        return this;
+    }
+
+    /**
+     * Sets the attribute of the span.
+     *
+     * @param key   the attribute key.
+     * @param value the attribute value.
+     * @return the span.
+     */
+    default DAOSpan attribute(String key, String value) {
+        return this;
+    }
+
+    /**
+     * Marks the span as failed.
+     *
+     * @param error the error.
+     */
+    default void error(Throwable error) {
+        // no-op
+    }
+
+    /**
+     * Ends the span.
+     */
+    @Override
+    default void close() {
+        // no-op
+    }
+}
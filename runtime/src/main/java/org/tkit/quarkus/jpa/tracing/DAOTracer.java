@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.tracing;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The tracer of the DAO operations.
+ * <p>
+ * The OpenTelemetry spans are created if the property {@code tkit.jpa.tracing.enabled} is {@code true}
+ * and the OpenTelemetry API ({@code io.opentelemetry:opentelemetry-api}) is on the classpath.
+ * Otherwise the tracer returns {@link DAOSpan#NOOP} and the OpenTelemetry classes are never loaded.
+ */
+public final class DAOTracer {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(DAOTracer.class);
+
+    /**
+     * The entity name attribute.
+     */
+    public static final String ATTR_ENTITY = "tkit.jpa.entity";
+
+    /**
+     * The DAO method attribute.
+     */
+    public static final String ATTR_METHOD = "tkit.jpa.method";
+
+    /**
+     * The page number attribute.
+     */
+    public static final String ATTR_PAGE_NUMBER = "tkit.jpa.page.number";
+
+    /**
+     * The page size attribute.
+     */
+    public static final String ATTR_PAGE_SIZE = "tkit.jpa.page.size";
+
+    /**
+     * The row count attribute.
+     */
+    public static final String ATTR_ROWS = "tkit.jpa.rows";
+
+    /**
+     * The total elements attribute of the paged query.
+     */
+    public static final String ATTR_TOTAL_ELEMENTS = "tkit.jpa.page.total-elements";
+
+    /**
+     * The error key attribute.
+     */
+    public static final String ATTR_ERROR_KEY = "tkit.jpa.error.key";
+
+    /**
+     * The configuration key of the tracing.
+     */
+    private static final String CONFIG_ENABLED = "tkit.jpa.tracing.enabled";
+
+    /**
+     * The OpenTelemetry API class.
+     */
+    private static final String OTEL_CLASS = "io.opentelemetry.api.GlobalOpenTelemetry";
+
+    /**
+     * The tracing enabled flag.
+     */
+    private static final boolean ENABLED = isTracingEnabled();
+
+    /**
+     * The default constructor.
+     */
+    private DAOTracer() {
+        // empty constructor
+    }
+
+    /**
+     * Returns {@code true} if the tracing is enabled.
+     *
+     * @return {@code true} if the tracing is enabled.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts the new span of the DAO operation.
+     *
+     * @param name       the span name.
+     * @param entityName the entity name.
+     * @return the new span or {@link DAOSpan#NOOP} if the tracing is disabled.
+     */
+    public static DAOSpan start(String name, String entityName) {
+        if (!ENABLED) {
+            return DAOSpan.NOOP;
+        }
+        return OpenTelemetryDAOSpan.start(name).attribute(ATTR_ENTITY, entityName);
+    }
+
+    /**
+     * Reads the tracing configuration.
+     *
+     * @return {@code true} if the tracing is enabled.
+     */
+    private static boolean isTracingEnabled() {
+        try {
+            if (!ConfigProvider.getConfig().getOptionalValue(CONFIG_ENABLED, Boolean.class).orElse(false)) {
+                return false;
+            }
+            Class.forName(OTEL_CLASS, false, DAOTracer.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            log.warn("The property {} is set but the OpenTelemetry API is not on the classpath, the tracing is disabled", CONFIG_ENABLED);
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.tracing;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+
+/**
+ * The OpenTelemetry implementation of the DAO span.
+ */
+class OpenTelemetryDAOSpan implements DAOSpan {
+
+    /**
+     * The instrumentation name.
+     */
+    private static final String INSTRUMENTATION_NAME = "tkit-quarkus-jpa";
+
+    /**
+     * The span.
+     */
+    private final Span span;
+
+    /**
+     * The scope of the span.
+     */
+    private final Scope scope;
+
+    /**
+     * The constructor.
+     *
+     * @param span the span.
+     */
+    private OpenTelemetryDAOSpan(Span span) {
+        this.span = span;
+        this.scope = span.makeCurrent();
+    }
+
+    /**
+     * Starts the new span.
+     *
+     * @param name the span name.
+     * @return the new span.
+     */
+    static DAOSpan start(String name) {
+        Tracer tracer = GlobalOpenTelemetry.getTracer(INSTRUMENTATION_NAME);
+        return new OpenTelemetryDAOSpan(tracer.spanBuilder(name).startSpan());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DAOSpan attribute(String key, long value) {
+        span.setAttribute(key, value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DAOSpan attribute(String key, String value) {
+        if (value != null) {
+            span.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(Throwable error) {
+        if (error instanceof DAOException && ((DAOException) error).key != null) {
+            span.setAttribute(DAOTracer.ATTR_ERROR_KEY, ((DAOException) error).key.name());
+        }
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        scope.close();
+        span.end();
+    }
+}
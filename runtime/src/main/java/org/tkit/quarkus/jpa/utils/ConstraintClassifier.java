@@ -0,0 +1,257 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.utils;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.tkit.quarkus.jpa.exceptions.ConstraintException;
+import org.tkit.quarkus.jpa.exceptions.ConstraintType;
+
+import javax.persistence.ForeignKey;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The database constraint violation classifier.
+ * <p>
+ * The constraint violation is detected by the SQL state and vendor error code of the {@link SQLException}
+ * in the cause chain. The constraint columns are resolved from the constraint names declared on the entity
+ * ({@link Table#uniqueConstraints()}, {@link Table#indexes()}, {@link JoinColumn#foreignKey()}), which
+ * are cached per entity class, or from the database message.
+ */
+public class ConstraintClassifier {
+
+    /**
+     * The max depth of the cause chain.
+     */
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    /**
+     * The constraint name prefix in the database message.
+     */
+    private static final String CONSTRAINT_PREFIX = "constraint \"";
+
+    /**
+     * The column name prefix in the database message.
+     */
+    private static final String COLUMN_PREFIX = "column \"";
+
+    /**
+     * The key columns prefix in the database message.
+     */
+    private static final String KEY_PREFIX = "Key (";
+
+    /**
+     * The key columns suffix in the database message.
+     */
+    private static final String KEY_SUFFIX = ")=";
+
+    /**
+     * The quote.
+     */
+    private static final String QUOTE = "\"";
+
+    /**
+     * The cache of the constraint columns for the entity class.
+     */
+    private static final Map<Class<?>, Map<String, List<String>>> CONSTRAINTS = new ConcurrentHashMap<>();
+
+    /**
+     * The default constructor.
+     */
+    private ConstraintClassifier() {
+        // empty constructor
+    }
+
+    /**
+     * Classifies the exception.
+     *
+     * @param ex          the exception.
+     * @param key         the error key.
+     * @param entityClass the entity class.
+     * @param entityName  the entity name.
+     * @return the corresponding constraint exception or {@code null} if the exception is not constraint violation.
+     */
+    public static ConstraintException classify(Exception ex, Enum<?> key, Class<?> entityClass, String entityName) {
+        SQLException sqlException = null;
+        String constraintName = null;
+        Throwable cause = ex;
+        for (int i = 0; cause != null && sqlException == null && i < MAX_CAUSE_DEPTH; i++) {
+            if (cause instanceof ConstraintViolationException) {
+                constraintName = ((ConstraintViolationException) cause).getConstraintName();
+            }
+            if (cause instanceof SQLException) {
+                sqlException = (SQLException) cause;
+            }
+            cause = cause.getCause();
+        }
+        if (sqlException == null) {
+            return null;
+        }
+        // the batch update exception contains the detail in the next exception
+        SQLException detail = sqlException.getNextException() != null ? sqlException.getNextException() : sqlException;
+        ConstraintType type = ConstraintType.of(detail.getSQLState(), detail.getErrorCode());
+        if (type == null) {
+            return null;
+        }
+        String message = detail.getMessage();
+        if (constraintName == null) {
+            constraintName = extract(message, CONSTRAINT_PREFIX, QUOTE);
+        }
+        List<String> columns = getColumns(entityClass, constraintName, type, message);
+        if (message != null) {
+            message = message.replace("\n", "");
+        }
+        return new ConstraintException(message, type, constraintName, columns, key, ex, entityName);
+    }
+
+    /**
+     * Gets the constraint columns.
+     *
+     * @param entityClass    the entity class.
+     * @param constraintName the constraint name.
+     * @param type           the constraint type.
+     * @param message        the database message.
+     * @return the list of columns.
+     */
+    private static List<String> getColumns(Class<?> entityClass, String constraintName, ConstraintType type, String message) {
+        if (entityClass != null && constraintName != null) {
+            List<String> columns = CONSTRAINTS.computeIfAbsent(entityClass, ConstraintClassifier::createConstraints)
+                    .get(constraintName.toLowerCase(Locale.ROOT));
+            if (columns != null) {
+                return columns;
+            }
+        }
+        if (type == ConstraintType.NOT_NULL) {
+            String column = extract(message, COLUMN_PREFIX, QUOTE);
+            if (column != null) {
+                return Collections.singletonList(column);
+            }
+        }
+        String columns = extract(message, KEY_PREFIX, KEY_SUFFIX);
+        if (columns != null) {
+            return split(columns);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Creates the constraint columns map of the entity class.
+     *
+     * @param entityClass the entity class.
+     * @return the map of the constraint name and columns.
+     */
+    private static Map<String, List<String>> createConstraints(Class<?> entityClass) {
+        Map<String, List<String>> result = new HashMap<>();
+        Class<?> clazz = entityClass;
+        while (clazz != null && clazz != Object.class) {
+            Table table = clazz.getAnnotation(Table.class);
+            if (table != null) {
+                for (UniqueConstraint uc : table.uniqueConstraints()) {
+                    add(result, uc.name(), Arrays.asList(uc.columnNames()));
+                }
+                for (Index index : table.indexes()) {
+                    add(result, index.name(), split(index.columnList()));
+                }
+            }
+            for (Field field : clazz.getDeclaredFields()) {
+                JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+                if (joinColumn != null) {
+                    ForeignKey fk = joinColumn.foreignKey();
+                    add(result, fk.name(), Collections.singletonList(joinColumn.name()));
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return result;
+    }
+
+    /**
+     * Adds the named constraint to the map.
+     *
+     * @param constraints the map of constraints.
+     * @param name        the constraint name.
+     * @param columns     the constraint columns.
+     */
+    private static void add(Map<String, List<String>> constraints, String name, List<String> columns) {
+        if (name != null && !name.isEmpty()) {
+            constraints.put(name.toLowerCase(Locale.ROOT), Collections.unmodifiableList(columns));
+        }
+    }
+
+    /**
+     * Extracts the value between the prefix and suffix.
+     *
+     * @param message the message.
+     * @param prefix  the prefix.
+     * @param suffix  the suffix.
+     * @return the value or {@code null} if not found.
+     */
+    private static String extract(String message, String prefix, String suffix) {
+        if (message == null) {
+            return null;
+        }
+        int start = message.indexOf(prefix);
+        if (start < 0) {
+            return null;
+        }
+        start = start + prefix.length();
+        int end = message.indexOf(suffix, start);
+        if (end < 0) {
+            return null;
+        }
+        return message.substring(start, end);
+    }
+
+    /**
+     * Splits the comma separated list of columns.
+     *
+     * @param value the comma separated list.
+     * @return the list of columns.
+     */
+    private static List<String> split(String value) {
+        List<String> result = new ArrayList<>();
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = value.length();
+            }
+            String item = value.substring(start, end).trim();
+            int space = item.indexOf(' ');
+            if (space > 0) {
+                // remove the index column order
+                item = item.substring(0, space);
+            }
+            if (!item.isEmpty()) {
+                result.add(item);
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 utility class.
+ * <p>
+ * The UUID contains 48 bits of the unix timestamp in milliseconds, 12 bits of the sub-millisecond sequence
+ * and 62 random bits. The generated values are monotonic in the JVM and the generator does not block
+ * ({@link ThreadLocalRandom} instead of the {@code SecureRandom} used by {@link UUID#randomUUID()}).
+ */
+public class UUIDv7Util {
+
+    /**
+     * The version 7 bits of the most significant long.
+     */
+    private static final long VERSION = 0x7000L;
+
+    /**
+     * The IETF variant bits of the least significant long.
+     */
+    private static final long VARIANT = 0x8000000000000000L;
+
+    /**
+     * The mask of the random bits of the least significant long.
+     */
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    /**
+     * The mask of the sequence bits.
+     */
+    private static final long SEQUENCE_MASK = 0xFFFL;
+
+    /**
+     * The last timestamp shifted by the sequence bits with the sequence.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * The default constructor.
+     */
+    private UUIDv7Util() {
+        // empty constructor
+    }
+
+    /**
+     * Creates new time-ordered UUID version 7.
+     *
+     * @return the new UUID.
+     */
+    public static UUID randomUUID() {
+        long now = System.currentTimeMillis() << 12;
+        long prev;
+        long next;
+        do {
+            prev = LAST.get();
+            next = Math.max(now, prev + 1);
+        } while (!LAST.compareAndSet(prev, next));
+
+        long msb = ((next >>> 12) << 16) | VERSION | (next & SEQUENCE_MASK);
+        long lsb = (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.warmup;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The startup warm-up of the DAO query shapes.
+ * <p>
+ * The DAO classes are recorded at build time. After the start of the application the warm-up compiles and executes
+ * the standard query shapes of each DAO ({@code findById}, {@code findByIds}, page and count query) in the background
+ * thread, which fills the Hibernate query plan cache, opens the pooled connections and warms the JIT. The warm-up
+ * is disabled by default and configured by the properties:
+ * <ul>
+ *     <li>{@code tkit.jpa.warmup.enabled} - enables the warm-up, default {@code false}</li>
+ *     <li>{@code tkit.jpa.warmup.iterations} - the number of the additional synthetic executions of the query shapes, default {@code 0}</li>
+ * </ul>
+ * The readiness health check {@code tkit-jpa-warmup} is down until the warm-up finishes,
+ * if the {@code quarkus-smallrye-health} extension is present. The DAO classes annotated with
+ * {@code @Warmup(enabled = false)} are not recorded.
+ *
+ * @see AbstractDAO#warmup(int)
+ * @see Warmup
+ */
+@ApplicationScoped
+public class DAOWarmup {
+
+    /**
+     * The logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(DAOWarmup.class);
+
+    /**
+     * The enabled configuration key.
+     */
+    private static final String CONFIG_ENABLED = "tkit.jpa.warmup.enabled";
+
+    /**
+     * The iterations configuration key.
+     */
+    private static final String CONFIG_ITERATIONS = "tkit.jpa.warmup.iterations";
+
+    /**
+     * The DAO classes recorded at build time.
+     */
+    private static volatile List<String> daoClasses = Collections.emptyList();
+
+    /**
+     * The warm-up duration of the DAO classes in milliseconds.
+     */
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    /**
+     * The finished latch.
+     */
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * Sets the DAO classes.
+     *
+     * @param classes the DAO class names.
+     */
+    static void setDAOClasses(List<String> classes) {
+        daoClasses = classes == null ? Collections.emptyList() : Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Gets the DAO classes recorded at build time.
+     *
+     * @return the DAO class names.
+     */
+    public List<String> getDAOClasses() {
+        return daoClasses;
+    }
+
+    /**
+     * Starts the warm-up on the startup of the application.
+     *
+     * @param event the startup event.
+     */
+    void onStart(@Observes StartupEvent event) {
+        Config config = ConfigProvider.getConfig();
+        if (!config.getOptionalValue(CONFIG_ENABLED, Boolean.class).orElse(false)) {
+            finished.countDown();
+            return;
+        }
+        int iterations = config.getOptionalValue(CONFIG_ITERATIONS, Integer.class).orElse(0);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Thread thread = new Thread(() -> warmup(classLoader, iterations), "tkit-jpa-warmup");
+        thread.setContextClassLoader(classLoader);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Warms up all DAOs. The failure of the DAO is logged and does not stop the warm-up.
+     *
+     * @param classLoader the class loader of the application.
+     * @param iterations  the number of the additional synthetic executions.
+     */
+    private void warmup(ClassLoader classLoader, int iterations) {
+        long start = System.currentTimeMillis();
+        try {
+            for (String name : daoClasses) {
+                long time = System.currentTimeMillis();
+                try {
+                    Class<?> clazz = Class.forName(name, false, classLoader);
+                    AbstractDAO<?> dao = (AbstractDAO<?>) Arc.container().instance(clazz).get();
+                    if (dao == null) {
+                        log.debug("DAO {} is not a bean, warm-up skipped", name);
+                        continue;
+                    }
+                    dao.warmup(iterations);
+                    durations.put(name, System.currentTimeMillis() - time);
+                } catch (Exception e) {
+                    log.warn("Warm-up of the DAO {} failed", name, e);
+                }
+            }
+            log.info("Warm-up of {} DAOs finished in {} ms", durations.size(), System.currentTimeMillis() - start);
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the warm-up is finished or disabled.
+     *
+     * @return {@code true} if the warm-up is finished or disabled.
+     */
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Waits for the end of the warm-up.
+     *
+     * @param timeout the timeout in milliseconds.
+     * @return {@code true} if the warm-up is finished.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    public boolean await(long timeout) throws InterruptedException {
+        return finished.await(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the warm-up duration of the successfully warmed up DAOs.
+     *
+     * @return the map of the DAO class name and the duration in milliseconds.
+     */
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(durations);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.warmup;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+import javax.inject.Inject;
+
+/**
+ * The readiness health check of the DAO warm-up. The check is registered by the extension
+ * if the {@code quarkus-smallrye-health} extension is present.
+ */
+@Readiness
+public class DAOWarmupHealthCheck implements HealthCheck {
+
+    /**
+     * The health check name.
+     */
+    private static final String NAME = "tkit-jpa-warmup";
+
+    /**
+     * The DAO warm-up.
+     */
+    @Inject
+    DAOWarmup warmup;
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named(NAME)
+                .state(warmup.isFinished())
+                .withData("daos", warmup.getDAOClasses().size())
+                .withData("finished", warmup.getDurations().size())
+                .build();
+    }
+}
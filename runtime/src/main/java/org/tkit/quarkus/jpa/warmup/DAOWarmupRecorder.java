@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.warmup;
+
+import io.quarkus.runtime.annotations.Recorder;
+
+import java.util.List;
+
+/**
+ * The recorder of the DAO warm-up.
+ */
+@Recorder
+public class DAOWarmupRecorder {
+
+    /**
+     * Sets the DAO classes of the warm-up.
+     *
+     * @param classes the DAO class names.
+     */
+    public void setDAOClasses(List<String> classes) {
+        DAOWarmup.setDAOClasses(classes);
+    }
+}
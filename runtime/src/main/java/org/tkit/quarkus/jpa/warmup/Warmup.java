@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 1000kit.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tkit.quarkus.jpa.warmup;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The warm-up options of the DAO.
+ * <p>
+ * The DAO annotated with {@code @Warmup(enabled = false)} is not recorded for the startup warm-up, for example
+ * the shard DAOs which are used only through the {@code ShardedDAO}. The annotation is inherited and evaluated
+ * at build time.
+ * <pre>
+ * {@code
+ * @Warmup(enabled = false)
+ * public abstract class UserShardDAO extends AbstractDAO<User> {
+ * }
+ * }
+ * </pre>
+ *
+ * @see DAOWarmup
+ */
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Warmup {
+
+    /**
+     * Enables the warm-up of the DAO.
+     *
+     * @return {@code false} to exclude the DAO from the warm-up.
+     */
+    boolean enabled() default true;
+}
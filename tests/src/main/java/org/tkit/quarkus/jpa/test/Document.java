@@ -0,0 +1,21 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.models.UUIDTraceableEntity;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "DOCUMENT")
+public class Document extends UUIDTraceableEntity {
+
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
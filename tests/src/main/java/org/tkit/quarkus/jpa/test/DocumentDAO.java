@@ -0,0 +1,10 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+
+import javax.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class DocumentDAO extends AbstractDAO<Document> {
+
+}
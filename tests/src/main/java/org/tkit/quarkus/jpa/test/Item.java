@@ -0,0 +1,21 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.models.SequenceTraceableEntity;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "ITEM")
+public class Item extends SequenceTraceableEntity {
+
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,31 @@
+package org.tkit.quarkus.jpa.test;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "ORDER_LINE")
+public class OrderLine {
+
+    @EmbeddedId
+    private OrderLineId id;
+
+    private String product;
+
+    public OrderLineId getId() {
+        return id;
+    }
+
+    public void setId(OrderLineId id) {
+        this.id = id;
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    public void setProduct(String product) {
+        this.product = product;
+    }
+}
@@ -0,0 +1,57 @@
+package org.tkit.quarkus.jpa.test;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class OrderLineId implements Serializable {
+
+    @Column(name = "ORDER_NUMBER")
+    private String orderNumber;
+
+    @Column(name = "LINE_NUMBER")
+    private Integer line;
+
+    public OrderLineId() {
+    }
+
+    public OrderLineId(String orderNumber, Integer line) {
+        this.orderNumber = orderNumber;
+        this.line = line;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public Integer getLine() {
+        return line;
+    }
+
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OrderLineId other = (OrderLineId) o;
+        return Objects.equals(orderNumber, other.orderNumber) && Objects.equals(line, other.line);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderNumber, line);
+    }
+}
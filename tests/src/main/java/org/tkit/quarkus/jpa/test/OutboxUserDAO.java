@@ -0,0 +1,24 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.models.AbstractOutboxEvent;
+import org.tkit.quarkus.jpa.models.OutboxEventType;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+
+@ApplicationScoped
+public class OutboxUserDAO extends AbstractDAO<User> {
+
+    @Override
+    protected AbstractOutboxEvent createOutboxEvent(OutboxEventType type, User entity) {
+        UserEvent event = new UserEvent();
+        event.setPayload("{\"name\":\"" + entity.getName() + "\"}");
+        return event;
+    }
+
+    @Transactional
+    public void deleteById(Object id) {
+        delete(findById(id));
+    }
+}
@@ -0,0 +1,33 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.ReadReplica;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.control.ActivateRequestContext;
+import javax.inject.Inject;
+
+@ApplicationScoped
+@ReadReplica("replica")
+public class ReplicaUserDAO extends AbstractDAO<User> {
+
+    @Inject
+    UserDAO userDAO;
+
+    @ActivateRequestContext
+    public User createWithPrimaryAndFind(User user) {
+        userDAO.create(user);
+        return findById(user.getId());
+    }
+
+    @ActivateRequestContext
+    public User createAndFind(User user) {
+        create(user);
+        return findById(user.getId());
+    }
+
+    @ActivateRequestContext
+    public User findInRequest(Object id) {
+        return findById(id);
+    }
+}
@@ -0,0 +1,30 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.DAOPersistenceUnit;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.daos.PagedQuery;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+
+@ApplicationScoped
+@DAOPersistenceUnit("replica")
+public class SecondaryUserDAO extends AbstractDAO<User> {
+
+    public PagedQuery<User> pageUsersByName(String name, Page page) {
+        CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<User> cq = criteriaQuery();
+        Root<User> root = cq.from(User.class);
+        cq.where(cb.equal(root.get(User_.NAME), name));
+        return createPageQuery(cq, page);
+    }
+
+    @Transactional
+    public void deleteById(Object id) {
+        delete(findById(id));
+    }
+}
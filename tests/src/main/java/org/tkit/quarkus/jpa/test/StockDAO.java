@@ -0,0 +1,22 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.daos.PagedQuery;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+@ApplicationScoped
+public class StockDAO extends AbstractDAO<Stock> {
+
+    public PagedQuery<Stock> pageByWarehouse(String warehouse, Page page) {
+        CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<Stock> cq = criteriaQuery();
+        Root<Stock> root = cq.from(Stock.class);
+        cq.where(cb.equal(root.get(Stock_.WAREHOUSE), warehouse));
+        return createPageQuery(cq, page);
+    }
+}
@@ -0,0 +1,44 @@
+package org.tkit.quarkus.jpa.test;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class StockId implements Serializable {
+
+    private String warehouse;
+
+    private String sku;
+
+    public StockId() {
+    }
+
+    public StockId(String warehouse, String sku) {
+        this.warehouse = warehouse;
+        this.sku = sku;
+    }
+
+    public String getWarehouse() {
+        return warehouse;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StockId other = (StockId) o;
+        return Objects.equals(warehouse, other.warehouse) && Objects.equals(sku, other.sku);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(warehouse, sku);
+    }
+}
@@ -3,6 +3,8 @@ package org.tkit.quarkus.jpa.test;
 import org.tkit.quarkus.jpa.daos.AbstractDAO;
 import org.tkit.quarkus.jpa.daos.Page;
 import org.tkit.quarkus.jpa.daos.PagedQuery;
+import org.tkit.quarkus.jpa.export.ExportResult;
+import org.tkit.quarkus.jpa.export.ExportWriter;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -11,6 +13,7 @@ import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,4 +53,12 @@ public class UserDAO extends AbstractDAO<User> {
         }
         return createPageQuery(cq, page);
     }
+
+    public ExportResult exportUsersByName(String name, OutputStream out, ExportWriter<User> writer) {
+        CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<User> cq = criteriaQuery();
+        Root<User> root = cq.from(User.class);
+        cq.where(cb.like(root.get(User_.NAME), name + "%"));
+        return export(cq, out, writer, 100);
+    }
 }
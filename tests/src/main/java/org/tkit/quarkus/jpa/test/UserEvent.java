@@ -0,0 +1,12 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.models.AbstractOutboxEvent;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "USER_EVENT")
+public class UserEvent extends AbstractOutboxEvent {
+
+}
@@ -0,0 +1,10 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.outbox.OutboxDAO;
+
+import javax.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class UserEventDAO extends OutboxDAO<UserEvent> {
+
+}
@@ -1,9 +1,11 @@
 package org.tkit.quarkus.jpa.test;
 
 import org.tkit.quarkus.jpa.daos.Page;
-import org.tkit.quarkus.jpa.daos.PageResult;
+import org.tkit.quarkus.jpa.export.CsvExportWriter;
+import org.tkit.quarkus.jpa.rs.PageResultHeaders;
 
 import javax.inject.Inject;
+import javax.transaction.Transactional;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -15,6 +17,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 @Path("users")
 @Consumes(MediaType.APPLICATION_JSON)
@@ -41,17 +44,22 @@ public class UserRestController {
     }
 
     @GET
+    @PageResultHeaders
     @Path("pageHeader/{index}/{size}")
     public Response pageHeader(@PathParam("index") int index, @PathParam("size") int size) {
-        PageResult<User> result = userDAO.createPageQuery(Page.of(index, size)).getPageResult();
+        // the page result writer streams the array of the rows and sets the paging headers
+        return Response.ok(userDAO.createPageQuery(Page.of(index, size)).getPageResult()).build();
+    }
 
-        return Response
-                .ok(result.getStream())
-                .header("totalElements", result.getTotalElements())
-                .header("number", result.getNumber())
-                .header("size", result.getSize())
-                .header("totalPages", result.getTotalPages())
-                .build();
+    @GET
+    @Path("export")
+    @Produces("text/csv")
+    public Response export() {
+        StreamingOutput output = out -> userDAO.export(out, new CsvExportWriter<User>()
+                .column("id", User::getId)
+                .column("name", User::getName)
+                .column("email", User::getEmail));
+        return Response.ok(output).build();
     }
 
     @GET
@@ -71,6 +79,7 @@ public class UserRestController {
 
     @PUT
     @Path("{id}")
+    @Transactional
     public Response update(@PathParam("id") String id, User user) {
         User tmp = userDAO.findById(id);
         if (tmp == null) {
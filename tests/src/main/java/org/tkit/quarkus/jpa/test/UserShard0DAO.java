@@ -0,0 +1,7 @@
+package org.tkit.quarkus.jpa.test;
+
+import javax.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class UserShard0DAO extends UserShardDAO {
+}
@@ -0,0 +1,10 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.DAOPersistenceUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+@DAOPersistenceUnit("replica")
+public class UserShard1DAO extends UserShardDAO {
+}
@@ -0,0 +1,23 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.daos.PagedQuery;
+import org.tkit.quarkus.jpa.warmup.Warmup;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+@Warmup(enabled = false)
+public abstract class UserShardDAO extends AbstractDAO<User> {
+
+    public PagedQuery<User> pageUsersByEmail(String email, Page page) {
+        CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<User> cq = criteriaQuery();
+        Root<User> root = cq.from(User.class);
+        cq.where(cb.equal(root.get(User_.EMAIL), email));
+        cq.orderBy(cb.asc(root.get(User_.NAME)), cb.asc(root.get(User_.ID)));
+        return createPageQuery(cq, page);
+    }
+}
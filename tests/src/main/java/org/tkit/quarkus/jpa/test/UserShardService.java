@@ -0,0 +1,32 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.ShardedDAO;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.util.List;
+
+@ApplicationScoped
+public class UserShardService {
+
+    @Inject
+    ShardedDAO<User, UserShardDAO> users;
+
+    @Inject
+    UserShard0DAO shard0;
+
+    @Transactional
+    public void delete(String id) {
+        users.delete(users.findById(id));
+    }
+
+    @Transactional
+    public User createAndFindByEmailKey(User user) {
+        // both shards use the same persistence unit, the scattered find must see the not committed user
+        try (ShardedDAO<User, UserShardDAO> byEmail = new ShardedDAO<>(List.of(shard0, shard0), User::getEmail)) {
+            byEmail.create(user);
+            return byEmail.findById(user.getId());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.tkit.quarkus.jpa.daos.ShardedDAO;
+
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+import java.util.List;
+
+@Singleton
+public class UserShards {
+
+    @Produces
+    @Singleton
+    ShardedDAO<User, UserShardDAO> users(UserShard0DAO shard0, UserShard1DAO shard1) {
+        return new ShardedDAO<>(List.of(shard0, shard1));
+    }
+
+    void close(@Disposes ShardedDAO<User, UserShardDAO> users) {
+        users.close();
+    }
+}
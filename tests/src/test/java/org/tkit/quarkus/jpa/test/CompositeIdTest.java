@@ -0,0 +1,125 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.daos.ScanResult;
+import org.tkit.quarkus.jpa.metamodel.EntityDescriptor;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("Composite ID tests")
+public class CompositeIdTest extends AbstractTest {
+
+    @Inject
+    OrderLineDAO orderLineDAO;
+
+    @Inject
+    StockDAO stockDAO;
+
+    @Test
+    public void descriptorTest() {
+        EntityDescriptor orderLine = orderLineDAO.getEntityDescriptor();
+        Assertions.assertNotNull(orderLine);
+        Assertions.assertEquals("id", orderLine.getIdAttribute());
+        Assertions.assertEquals(OrderLineId.class.getName(), orderLine.getIdType());
+        Assertions.assertTrue(orderLine.isCompositeId());
+        Assertions.assertFalse(orderLine.isIdClass());
+        Assertions.assertEquals(List.of("id.orderNumber", "id.line"), orderLine.getIdAttributes());
+
+        EntityDescriptor stock = stockDAO.getEntityDescriptor();
+        Assertions.assertNotNull(stock);
+        Assertions.assertEquals("", stock.getIdAttribute());
+        Assertions.assertEquals(StockId.class.getName(), stock.getIdType());
+        Assertions.assertTrue(stock.isCompositeId());
+        Assertions.assertTrue(stock.isIdClass());
+        Assertions.assertEquals(List.of("warehouse", "sku"), stock.getIdAttributes());
+    }
+
+    @Test
+    public void embeddedIdTest() {
+        String order = UUID.randomUUID().toString();
+        orderLineDAO.create(IntStream.range(0, 5).mapToObj(i -> createOrderLine(order, i))).count();
+
+        Assertions.assertEquals("product-3", orderLineDAO.findById(new OrderLineId(order, 3)).getProduct());
+        List<Object> ids = List.of(new OrderLineId(order, 1), new OrderLineId(order, 2), new OrderLineId(order, 99));
+        Assertions.assertEquals(2, orderLineDAO.findByIds(ids).count());
+
+        Assertions.assertTrue(orderLineDAO.deleteQueryById(new OrderLineId(order, 0)));
+        Assertions.assertEquals(2, orderLineDAO.deleteQueryByIds(ids));
+        Assertions.assertNull(orderLineDAO.findById(new OrderLineId(order, 1)));
+        Assertions.assertNotNull(orderLineDAO.findById(new OrderLineId(order, 4)));
+    }
+
+    @Test
+    public void idClassTest() {
+        String warehouse = UUID.randomUUID().toString();
+        stockDAO.create(IntStream.range(0, 5).mapToObj(i -> createStock(warehouse, "sku-" + i))).count();
+
+        Assertions.assertEquals(3, stockDAO.findById(new StockId(warehouse, "sku-3")).getQuantity());
+        List<Object> ids = List.of(new StockId(warehouse, "sku-1"), new StockId(warehouse, "sku-2"), new StockId("other", "sku-1"));
+        Assertions.assertEquals(2, stockDAO.findByIds(ids).count());
+
+        Assertions.assertTrue(stockDAO.deleteQueryById(new StockId(warehouse, "sku-0")));
+        Assertions.assertFalse(stockDAO.deleteQueryById(new StockId("other", "sku-4")));
+        Assertions.assertEquals(2, stockDAO.deleteQueryByIds(ids));
+        Assertions.assertNull(stockDAO.findById(new StockId(warehouse, "sku-1")));
+        Assertions.assertNotNull(stockDAO.findById(new StockId(warehouse, "sku-4")));
+    }
+
+    @Test
+    public void defaultSortingTest() {
+        String warehouse = UUID.randomUUID().toString();
+        stockDAO.create(Stream.of("c", "a", "e", "b", "d").map(sku -> createStock(warehouse, sku))).count();
+
+        List<String> first = stockDAO.pageByWarehouse(warehouse, Page.of(0, 3)).getPageResult().getStream()
+                .map(Stock::getSku).collect(Collectors.toList());
+        List<String> second = stockDAO.pageByWarehouse(warehouse, Page.of(1, 3)).getPageResult().getStream()
+                .map(Stock::getSku).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("a", "b", "c"), first);
+        Assertions.assertEquals(List.of("d", "e"), second);
+    }
+
+    @Test
+    public void partitionedScanTest() {
+        String order = UUID.randomUUID().toString();
+        orderLineDAO.create(IntStream.range(0, 500).mapToObj(i -> createOrderLine(order, i))).count();
+        String warehouse = UUID.randomUUID().toString();
+        stockDAO.create(IntStream.range(0, 500).mapToObj(i -> createStock(warehouse, "sku-" + i))).count();
+
+        long lines = orderLineDAO.findAll().count();
+        ScanResult<Long> lineResult = orderLineDAO.scan(4, 2, Stream::count, Long::sum, 50);
+        Assertions.assertTrue(lineResult.isSuccess());
+        Assertions.assertEquals(4, lineResult.getPartitions());
+        Assertions.assertEquals(lines, lineResult.getResult());
+
+        long stocks = stockDAO.findAll().count();
+        ScanResult<Long> stockResult = stockDAO.scan(4, 2, Stream::count, Long::sum, 50);
+        Assertions.assertTrue(stockResult.isSuccess());
+        Assertions.assertEquals(4, stockResult.getPartitions());
+        Assertions.assertEquals(stocks, stockResult.getResult());
+    }
+
+    private static OrderLine createOrderLine(String order, int line) {
+        OrderLine result = new OrderLine();
+        result.setId(new OrderLineId(order, line));
+        result.setProduct("product-" + line);
+        return result;
+    }
+
+    private static Stock createStock(String warehouse, String sku) {
+        Stock result = new Stock();
+        result.setWarehouse(warehouse);
+        result.setSku(sku);
+        result.setQuantity(sku.length() > 4 ? Integer.parseInt(sku.substring(4)) : 0);
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package org.tkit.quarkus.jpa.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.exceptions.ConstraintException;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("DAO exception tests")
+public class DAOExceptionTest {
+
+    enum TestErrors {
+        DISABLED, ENABLED
+    }
+
+    @Test
+    public void stackTraceTest() {
+        DAOException.disableStackTrace(TestErrors.DISABLED);
+        try {
+            Assertions.assertEquals(0, new DAOException(TestErrors.DISABLED, null).getStackTrace().length);
+            Assertions.assertTrue(new DAOException(TestErrors.ENABLED, null).getStackTrace().length > 0);
+        } finally {
+            DAOException.enableStackTrace(TestErrors.DISABLED);
+        }
+        Assertions.assertTrue(new DAOException(TestErrors.DISABLED, null).getStackTrace().length > 0);
+    }
+
+    @Test
+    public void parametersTest() {
+        DAOException ex = new DAOException(TestErrors.ENABLED, null);
+        Assertions.assertEquals("TestErrors,key:ENABLED,parameters:[],namedParameters:{}", ex.getMessage());
+
+        ex.getParameters().add("a");
+        ex.getNamedParameters().put("b", 1);
+        Assertions.assertEquals(List.of("a"), ex.getParameters());
+        Assertions.assertEquals(Map.of("b", 1), ex.getNamedParameters());
+
+        DAOException withParameters = new DAOException(TestErrors.ENABLED, null, "x");
+        withParameters.getParameters().add("y");
+        Assertions.assertEquals(List.of("x", "y"), withParameters.getParameters());
+    }
+
+    @Test
+    public void messageInvalidationTest() {
+        DAOException ex = new DAOException(TestErrors.ENABLED, null, "a");
+        Assertions.assertEquals("TestErrors,key:ENABLED,parameters:[a],namedParameters:{}", ex.getMessage());
+
+        ex.addParameter("b");
+        ex.addParameter("c", 1);
+        Assertions.assertEquals("TestErrors,key:ENABLED,parameters:[a, b],namedParameters:{c=1}", ex.getMessage());
+
+        ex.getParameters().add("d");
+        Assertions.assertEquals("TestErrors,key:ENABLED,parameters:[a, b, d],namedParameters:{c=1}", ex.getMessage());
+        ex.getNamedParameters().clear();
+        Assertions.assertEquals("TestErrors,key:ENABLED,parameters:[a, b, d],namedParameters:{}", ex.getMessage());
+    }
+
+    @Test
+    public void constraintsTest() {
+        ConstraintException ex = new ConstraintException("uk_user_email", TestErrors.ENABLED, null);
+        Assertions.assertEquals("uk_user_email", ex.getConstraints());
+        Assertions.assertEquals("TestErrors,key:ENABLED,parameters:[],namedParameters:{constraint=uk_user_email}", ex.getMessage());
+    }
+}
@@ -0,0 +1,52 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.tracing.DAOSpan;
+import org.tkit.quarkus.jpa.tracing.DAOTracer;
+
+import javax.inject.Inject;
+
+@QuarkusTest
+@DisplayName("DAO tracing disabled tests")
+public class DAOTracingDisabledTest extends AbstractTest {
+
+    private static final InMemorySpanExporter EXPORTER = InMemorySpanExporter.create();
+
+    @Inject
+    UserDAO userDAO;
+
+    @BeforeAll
+    public static void beforeAll() {
+        GlobalOpenTelemetry.resetForTest();
+        OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(EXPORTER)).build())
+                .buildAndRegisterGlobal();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        GlobalOpenTelemetry.resetForTest();
+    }
+
+    @Test
+    public void disabledTest() {
+        Assertions.assertFalse(DAOTracer.isEnabled());
+        Assertions.assertSame(DAOSpan.NOOP, DAOTracer.start("UserDAO.findAll", "User"));
+
+        userDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        userDAO.findAll().count();
+        userDAO.createPageQuery(Page.of(0, 1)).getPageResult().getStream().count();
+        Assertions.assertTrue(EXPORTER.getFinishedSpanItems().isEmpty());
+    }
+}
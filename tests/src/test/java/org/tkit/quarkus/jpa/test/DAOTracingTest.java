@@ -0,0 +1,118 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.tracing.DAOTracer;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@TestProfile(DAOTracingTest.TracingProfile.class)
+@DisplayName("DAO tracing tests")
+public class DAOTracingTest extends AbstractTest {
+
+    private static final InMemorySpanExporter EXPORTER = InMemorySpanExporter.create();
+
+    @Inject
+    UserDAO userDAO;
+
+    @BeforeAll
+    public static void beforeAll() {
+        GlobalOpenTelemetry.resetForTest();
+        OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(EXPORTER)).build())
+                .buildAndRegisterGlobal();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        GlobalOpenTelemetry.resetForTest();
+    }
+
+    @BeforeEach
+    public void before() {
+        EXPORTER.reset();
+    }
+
+    @Test
+    public void daoSpanTest() {
+        Assertions.assertTrue(DAOTracer.isEnabled());
+        List<User> users = userDAO.create(Stream.generate(UserDAOTest.UserTestBuilder::createUser).limit(3)
+                .collect(Collectors.toList())).collect(Collectors.toList());
+        List<Object> ids = users.stream().map(User::getId).collect(Collectors.toList());
+        Assertions.assertEquals(3, userDAO.findByIds(ids).count());
+        Assertions.assertEquals(3, userDAO.deleteQueryByIds(ids));
+
+        List<SpanData> spans = EXPORTER.getFinishedSpanItems();
+        // create(List) -> create(Stream) and findByIds(ids) -> findByIds(ids, null) create one span each
+        Assertions.assertEquals(1, spans(spans, "UserDAO.create").size());
+        Assertions.assertEquals(1, spans(spans, "UserDAO.findByIds").size());
+        SpanData delete = spans(spans, "UserDAO.deleteQueryByIds").get(0);
+        Assertions.assertEquals("User", delete.getAttributes().get(AttributeKey.stringKey(DAOTracer.ATTR_ENTITY)));
+        Assertions.assertEquals(3L, delete.getAttributes().get(AttributeKey.longKey(DAOTracer.ATTR_ROWS)));
+    }
+
+    @Test
+    public void pagedQuerySpanTest() {
+        userDAO.create(Stream.generate(UserDAOTest.UserTestBuilder::createUser).limit(3));
+        EXPORTER.reset();
+
+        userDAO.createPageQuery(Page.of(0, 2)).getPageResult().getStream().count();
+
+        List<SpanData> spans = EXPORTER.getFinishedSpanItems();
+        SpanData count = spans(spans, "PagedQuery.count").get(0);
+        SpanData data = spans(spans, "PagedQuery.data").get(0);
+        Assertions.assertEquals(2L, count.getAttributes().get(AttributeKey.longKey(DAOTracer.ATTR_PAGE_SIZE)));
+        Assertions.assertEquals(0L, data.getAttributes().get(AttributeKey.longKey(DAOTracer.ATTR_PAGE_NUMBER)));
+        Assertions.assertEquals(2L, data.getAttributes().get(AttributeKey.longKey(DAOTracer.ATTR_ROWS)));
+        Assertions.assertTrue(count.getAttributes().get(AttributeKey.longKey(DAOTracer.ATTR_TOTAL_ELEMENTS)) >= 3);
+    }
+
+    @Test
+    public void errorSpanTest() {
+        User user = UserDAOTest.UserTestBuilder.createUser();
+        userDAO.create(user);
+        User duplicate = UserDAOTest.UserTestBuilder.createUser();
+        duplicate.setId(user.getId());
+        EXPORTER.reset();
+
+        Assertions.assertThrows(DAOException.class, () -> userDAO.create(duplicate));
+
+        SpanData create = spans(EXPORTER.getFinishedSpanItems(), "UserDAO.create").get(0);
+        Assertions.assertEquals(AbstractDAO.Errors.PERSIST_ENTITY_FAILED.name(),
+                create.getAttributes().get(AttributeKey.stringKey(DAOTracer.ATTR_ERROR_KEY)));
+    }
+
+    private static List<SpanData> spans(List<SpanData> spans, String name) {
+        return spans.stream().filter(s -> name.equals(s.getName())).collect(Collectors.toList());
+    }
+
+    public static class TracingProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("tkit.jpa.tracing.enabled", "true");
+        }
+    }
+}
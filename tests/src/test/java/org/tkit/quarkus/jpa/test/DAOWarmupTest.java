@@ -0,0 +1,56 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.warmup.DAOWarmup;
+
+import javax.inject.Inject;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+
+@QuarkusTest
+@TestProfile(DAOWarmupTest.WarmupProfile.class)
+@DisplayName("DAO warm-up tests")
+public class DAOWarmupTest extends AbstractTest {
+
+    @Inject
+    DAOWarmup warmup;
+
+    @Inject
+    UserDAO userDAO;
+
+    @Test
+    public void warmupTest() throws Exception {
+        Assertions.assertTrue(warmup.await(30_000));
+        Assertions.assertTrue(warmup.getDAOClasses().contains(UserDAO.class.getName()));
+        Assertions.assertFalse(warmup.getDAOClasses().contains(UserShardDAO.class.getName()));
+        Assertions.assertFalse(warmup.getDAOClasses().contains(UserShard0DAO.class.getName()));
+        Assertions.assertFalse(warmup.getDAOClasses().contains(UserShard1DAO.class.getName()));
+        Assertions.assertTrue(warmup.getDurations().containsKey(UserDAO.class.getName()));
+
+        given().when().get("/q/health/ready")
+                .then()
+                .statusCode(200)
+                .body("checks.name", hasItem("tkit-jpa-warmup"));
+    }
+
+    @Test
+    public void warmupDAOTest() {
+        userDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertDoesNotThrow(() -> userDAO.warmup(2));
+    }
+
+    public static class WarmupProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("tkit.jpa.warmup.enabled", "true", "tkit.jpa.warmup.iterations", "1");
+        }
+    }
+}
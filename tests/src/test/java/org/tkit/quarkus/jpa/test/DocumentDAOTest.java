@@ -0,0 +1,80 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("Document DAO tests")
+public class DocumentDAOTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentDAOTest.class);
+
+    @Inject
+    DocumentDAO documentDAO;
+
+    @Inject
+    AddressDAO addressDAO;
+
+    @Inject
+    EntityManager em;
+
+    @Test
+    public void createDocumentTest() {
+        Document document = new Document();
+        document.setName("document");
+        documentDAO.create(document);
+
+        Document loaded = documentDAO.findById(document.getId());
+        Assertions.assertNotNull(loaded);
+        Assertions.assertEquals(document.getId(), loaded.getId());
+        Assertions.assertEquals(7, loaded.getId().version());
+    }
+
+    @Test
+    public void timeOrderedIdTest() {
+        List<UUID> ids = Stream.generate(Document::new).limit(1000)
+                .peek(Document::generateId)
+                .map(Document::getId)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(ids, ids.stream().sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(1000, ids.stream().distinct().count());
+    }
+
+    @Test
+    public void uuidIndexSizeTest() {
+        int count = 5000;
+
+        long start = System.nanoTime();
+        addressDAO.create(Stream.generate(Address::new).limit(count));
+        long stringTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        documentDAO.create(Stream.generate(Document::new).limit(count));
+        long uuidTime = System.nanoTime() - start;
+
+        double stringIndex = indexSizePerRow("address");
+        double uuidIndex = indexSizePerRow("document");
+        log.info("Insert {} rows string GUID: {} ms, index {} bytes/row", count, stringTime / 1_000_000, stringIndex);
+        log.info("Insert {} rows UUIDv7 GUID: {} ms, index {} bytes/row", count, uuidTime / 1_000_000, uuidIndex);
+        Assertions.assertTrue(uuidIndex < stringIndex);
+    }
+
+    private double indexSizePerRow(String table) {
+        Number size = (Number) em.createNativeQuery("SELECT pg_relation_size(i.indexrelid) FROM pg_index i" +
+                " WHERE i.indrelid = to_regclass('" + table + "') AND i.indisprimary")
+                .getSingleResult();
+        Number rows = (Number) em.createNativeQuery("SELECT count(*) FROM " + table).getSingleResult();
+        return size.doubleValue() / rows.doubleValue();
+    }
+}
@@ -0,0 +1,46 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.metamodel.EntityDescriptor;
+import org.tkit.quarkus.jpa.metamodel.EntityDescriptors;
+
+import javax.inject.Inject;
+
+@QuarkusTest
+@DisplayName("Entity descriptor tests")
+public class EntityDescriptorTest extends AbstractTest {
+
+    @Inject
+    UserDAO userDAO;
+
+    @Test
+    public void userDescriptorTest() {
+        EntityDescriptor descriptor = EntityDescriptors.get(User.class);
+        Assertions.assertNotNull(descriptor);
+        Assertions.assertSame(descriptor, userDAO.getEntityDescriptor());
+        Assertions.assertEquals("User", descriptor.getEntityName());
+        Assertions.assertEquals("TEST_USER", descriptor.getTable());
+        Assertions.assertEquals("id", descriptor.getIdAttribute());
+        Assertions.assertEquals(String.class.getName(), descriptor.getIdType());
+        Assertions.assertEquals("version", descriptor.getVersionAttribute());
+        Assertions.assertEquals("GUID", descriptor.getColumn("id"));
+        Assertions.assertEquals("OPTLOCK", descriptor.getColumn("version"));
+        Assertions.assertEquals("name", descriptor.getColumn("name"));
+        Assertions.assertEquals("ADDRESS_GUID", descriptor.getColumn("address"));
+        Assertions.assertTrue(descriptor.isAssociation("address"));
+        Assertions.assertNull(descriptor.getColumn("persisted"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> descriptor.getColumns().put("x", "y"));
+    }
+
+    @Test
+    public void sequenceDescriptorTest() {
+        EntityDescriptor descriptor = EntityDescriptors.get(Item.class);
+        Assertions.assertNotNull(descriptor);
+        Assertions.assertEquals("ITEM", descriptor.getTable());
+        Assertions.assertEquals("id", descriptor.getIdAttribute());
+        Assertions.assertEquals(Long.class.getName(), descriptor.getIdType());
+    }
+}
@@ -0,0 +1,69 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.daos.ScanResult;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("Item DAO tests")
+public class ItemDAOTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemDAOTest.class);
+
+    private static final int INCREMENT_SIZE = 50;
+
+    @Inject
+    ItemDAO itemDAO;
+
+    @Inject
+    EntityManager em;
+
+    @Test
+    public void createItemTest() {
+        Item item = new Item();
+        item.setName("item");
+        itemDAO.create(item);
+        Assertions.assertNotNull(item.getId());
+
+        Item loaded = itemDAO.findById(item.getId());
+        Assertions.assertEquals(item, loaded);
+        Assertions.assertEquals("item", loaded.getName());
+    }
+
+    @Test
+    public void sequenceCallsPer10kInsertsTest() {
+        int count = 10_000;
+        long before = nextValue();
+        long start = System.nanoTime();
+        itemDAO.create(Stream.generate(Item::new).limit(count));
+        long time = System.nanoTime() - start;
+        long after = nextValue();
+
+        long calls = (after - before) / INCREMENT_SIZE - 1;
+        log.info("Insert {} items in {} ms with {} sequence calls", count, time / 1_000_000, calls);
+        Assertions.assertTrue(calls <= count / INCREMENT_SIZE + 1);
+    }
+
+    @Test
+    public void partitionedScanTest() {
+        itemDAO.create(Stream.generate(Item::new).limit(1000));
+        long total = itemDAO.findAll().count();
+
+        ScanResult<Long> result = itemDAO.scan(4, 2, Stream::count, Long::sum, 100);
+        Assertions.assertTrue(result.isSuccess());
+        Assertions.assertEquals(4, result.getPartitions());
+        Assertions.assertEquals(total, result.getResult());
+    }
+
+    private long nextValue() {
+        return ((Number) em.createNativeQuery("SELECT nextval('Item_SEQ')").getSingleResult()).longValue();
+    }
+}
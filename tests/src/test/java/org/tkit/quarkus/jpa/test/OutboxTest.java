@@ -0,0 +1,103 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.models.OutboxEventType;
+import org.tkit.quarkus.jpa.outbox.OutboxRelay;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+@QuarkusTest
+@DisplayName("Outbox tests")
+public class OutboxTest extends AbstractTest {
+
+    @Inject
+    OutboxUserDAO outboxUserDAO;
+
+    @Inject
+    UserEventDAO userEventDAO;
+
+    @BeforeEach
+    public void before() {
+        userEventDAO.deleteQueryAll();
+    }
+
+    @Test
+    public void writeAndDrainTest() {
+        User user = outboxUserDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        user.setEmail("outbox@test");
+        outboxUserDAO.update(user);
+        outboxUserDAO.deleteById(user.getId());
+
+        List<UserEvent> events = new ArrayList<>();
+        Assertions.assertEquals(2, userEventDAO.drain(2, events::addAll));
+        Assertions.assertEquals(1, userEventDAO.drain(2, events::addAll));
+        Assertions.assertEquals(0, userEventDAO.drain(2, events::addAll));
+
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertEquals(OutboxEventType.CREATED, events.get(0).getEventType());
+        Assertions.assertEquals(OutboxEventType.UPDATED, events.get(1).getEventType());
+        Assertions.assertEquals(OutboxEventType.DELETED, events.get(2).getEventType());
+        events.forEach(e -> {
+            Assertions.assertEquals("User", e.getAggregateType());
+            Assertions.assertEquals(user.getId(), e.getAggregateId());
+        });
+    }
+
+    @Test
+    public void createListTest() {
+        List<User> users = List.of(UserDAOTest.UserTestBuilder.createUser(), UserDAOTest.UserTestBuilder.createUser(), UserDAOTest.UserTestBuilder.createUser());
+        outboxUserDAO.create(users);
+
+        List<UserEvent> events = new ArrayList<>();
+        Assertions.assertEquals(3, userEventDAO.drain(10, events::addAll));
+        Assertions.assertEquals(users.stream().map(User::getId).collect(Collectors.toSet()),
+                events.stream().map(UserEvent::getAggregateId).collect(Collectors.toSet()));
+        events.forEach(e -> Assertions.assertEquals(OutboxEventType.CREATED, e.getEventType()));
+    }
+
+    @Test
+    public void bulkDeleteWithoutEventTest() {
+        User user1 = outboxUserDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        User user2 = outboxUserDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertEquals(2, userEventDAO.drain(10, events -> { }));
+
+        Assertions.assertTrue(outboxUserDAO.deleteQueryById(user1.getId()));
+        Assertions.assertEquals(1, outboxUserDAO.deleteQueryByIds(List.of(user2.getId())));
+        Assertions.assertEquals(0, userEventDAO.findAll().count());
+    }
+
+    @Test
+    public void sinkFailureTest() {
+        outboxUserDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertThrows(DAOException.class, () -> userEventDAO.drain(10, events -> {
+            throw new IllegalStateException("sink failed");
+        }));
+        Assertions.assertEquals(1, userEventDAO.findAll().count());
+        Assertions.assertEquals(1, userEventDAO.drain(10, events -> { }));
+        Assertions.assertEquals(0, userEventDAO.findAll().count());
+    }
+
+    @Test
+    public void relayTest() throws Exception {
+        List<UserEvent> events = new CopyOnWriteArrayList<>();
+        outboxUserDAO.create(List.of(UserDAOTest.UserTestBuilder.createUser(), UserDAOTest.UserTestBuilder.createUser(), UserDAOTest.UserTestBuilder.createUser()));
+        try (OutboxRelay<UserEvent> relay = new OutboxRelay<>(userEventDAO, events::addAll, 2, 50)) {
+            relay.start();
+            for (int i = 0; i < 100 && relay.getPublished() < 3; i++) {
+                Thread.sleep(50);
+            }
+            Assertions.assertEquals(3, relay.getPublished());
+        }
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertEquals(0, userEventDAO.findAll().count());
+    }
+}
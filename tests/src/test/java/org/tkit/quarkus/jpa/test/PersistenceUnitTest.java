@@ -0,0 +1,63 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.daos.PageResult;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("DAO persistence unit tests")
+public class PersistenceUnitTest extends AbstractTest {
+
+    @Inject
+    UserDAO userDAO;
+
+    @Inject
+    SecondaryUserDAO secondaryUserDAO;
+
+    @Test
+    public void createAndFindTest() {
+        User user = secondaryUserDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertNotNull(secondaryUserDAO.findById(user.getId()));
+        Assertions.assertNull(userDAO.findById(user.getId()));
+
+        Assertions.assertTrue(secondaryUserDAO.deleteQueryById(user.getId()));
+        Assertions.assertNull(secondaryUserDAO.findById(user.getId()));
+    }
+
+    @Test
+    public void deleteManagedEntityTest() {
+        User user = secondaryUserDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertNotNull(secondaryUserDAO.findById(user.getId()));
+
+        secondaryUserDAO.deleteById(user.getId());
+        Assertions.assertNull(secondaryUserDAO.findById(user.getId()));
+    }
+
+    @Test
+    public void pageAndBulkTest() {
+        String name = UUID.randomUUID().toString();
+        List<User> users = Stream.generate(UserDAOTest.UserTestBuilder::createUser)
+                .limit(5)
+                .peek(u -> u.setName(name))
+                .collect(Collectors.toList());
+        secondaryUserDAO.create(users);
+
+        PageResult<User> result = secondaryUserDAO.pageUsersByName(name, Page.of(0, 2)).getPageResult();
+        Assertions.assertEquals(5, result.getTotalElements());
+        Assertions.assertEquals(2, result.getStream().count());
+
+        List<Object> ids = users.stream().map(User::getId).collect(Collectors.toList());
+        Assertions.assertEquals(0, userDAO.findByIds(ids).count());
+        Assertions.assertEquals(5, secondaryUserDAO.deleteQueryByIds(ids));
+        Assertions.assertEquals(0, secondaryUserDAO.findByIds(ids).count());
+    }
+}
@@ -3,7 +3,7 @@ package org.tkit.quarkus.jpa.test;
 import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
 import org.testcontainers.containers.PostgreSQLContainer;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 public class PostgreSQLResource implements QuarkusTestResourceLifecycleManager {
@@ -14,15 +14,25 @@ public class PostgreSQLResource implements QuarkusTestResourceLifecycleManager {
             .withUsername("postgres")
             .withPassword("postgres");
 
+    PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:12")
+            .withUrlParam("sslmode", "disable")
+            .withDatabaseName("postgres")
+            .withUsername("postgres")
+            .withPassword("postgres");
 
     @Override
     public Map<String, String> start() {
         db.start();
-        return Collections.singletonMap("quarkus.datasource.jdbc.url", db.getJdbcUrl());
+        replica.start();
+        Map<String, String> config = new HashMap<>();
+        config.put("quarkus.datasource.jdbc.url", db.getJdbcUrl());
+        config.put("quarkus.datasource.\"replica\".jdbc.url", replica.getJdbcUrl());
+        return config;
     }
 
     @Override
     public void stop() {
+        replica.stop();
         db.stop();
     }
-}
\ No newline at end of file
+}
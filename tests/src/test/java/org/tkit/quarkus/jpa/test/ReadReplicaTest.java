@@ -0,0 +1,50 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.util.concurrent.CompletableFuture;
+
+@QuarkusTest
+@DisplayName("Read replica DAO tests")
+public class ReadReplicaTest extends AbstractTest {
+
+    @Inject
+    UserDAO userDAO;
+
+    @Inject
+    ReplicaUserDAO replicaUserDAO;
+
+    @Test
+    public void readFromReplicaTest() {
+        // the write outside of the request of the test, the write marks the request for the primary reads
+        User user = CompletableFuture.supplyAsync(() -> userDAO.create(UserDAOTest.UserTestBuilder.createUser())).join();
+        Assertions.assertNotNull(userDAO.findById(user.getId()));
+        // the replica database is not synchronized with the primary database in the test
+        Assertions.assertNull(replicaUserDAO.findInRequest(user.getId()));
+    }
+
+    @Test
+    public void readYourWritesTest() {
+        User user = replicaUserDAO.createAndFind(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertNotNull(user);
+        Assertions.assertNotNull(userDAO.findById(user.getId()));
+    }
+
+    @Test
+    public void readYourWritesOfOtherDAOTest() {
+        User user = replicaUserDAO.createWithPrimaryAndFind(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertNotNull(user);
+    }
+
+    @Test
+    @Transactional
+    public void readInTransactionTest() {
+        User user = userDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        Assertions.assertNotNull(replicaUserDAO.findById(user.getId()));
+    }
+}
@@ -0,0 +1,100 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.daos.PageResult;
+import org.tkit.quarkus.jpa.daos.ShardedDAO;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+
+import javax.inject.Inject;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("Sharded DAO tests")
+public class ShardedDAOTest extends AbstractTest {
+
+    @Inject
+    UserShard0DAO shard0;
+
+    @Inject
+    ShardedDAO<User, UserShardDAO> users;
+
+    @Inject
+    UserShardService service;
+
+    @Test
+    public void routingTest() {
+        List<User> data = createUsers(UUID.randomUUID().toString(), 20);
+        data.forEach(users::create);
+
+        for (User user : data) {
+            UserShardDAO shard = users.getShards().get(users.shardIndex(user.getId()));
+            UserShardDAO other = users.getShards().get(1 - users.shardIndex(user.getId()));
+            Assertions.assertNotNull(shard.findById(user.getId()));
+            Assertions.assertNull(other.findById(user.getId()));
+            Assertions.assertNotNull(users.findById(user.getId()));
+        }
+        Assertions.assertTrue(data.stream().map(u -> users.shardIndex(u.getId())).distinct().count() > 1);
+
+        List<Object> ids = data.stream().map(User::getId).collect(Collectors.toList());
+        Assertions.assertEquals(20, users.findByIds(ids).size());
+
+        service.delete(data.get(0).getId());
+        Assertions.assertNull(users.findById(data.get(0).getId()));
+        Assertions.assertEquals(19, users.findByIds(ids).size());
+    }
+
+    @Test
+    public void scatterInTransactionTest() {
+        User user = UserDAOTest.UserTestBuilder.createUser();
+        User found = service.createAndFindByEmailKey(user);
+        Assertions.assertNotNull(found);
+        Assertions.assertEquals(user.getId(), found.getId());
+    }
+
+    @Test
+    public void pageOverflowTest() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> users.getPageResult((dao, p) -> dao.pageUsersByEmail("none", p), Page.of(Integer.MAX_VALUE / 10, 10),
+                        Comparator.comparing(User::getId)));
+    }
+
+    @Test
+    public void closedExecutorTest() {
+        ShardedDAO<User, UserShardDAO> router = new ShardedDAO<>(List.of(shard0, shard0), User::getEmail);
+        router.close();
+        Assertions.assertThrows(DAOException.class, () -> router.findById(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void pageResultTest() {
+        String email = UUID.randomUUID().toString();
+        List<User> data = createUsers(email, 25);
+        data.forEach(users::create);
+        Comparator<User> order = Comparator.comparing(User::getName).thenComparing(User::getId);
+        List<String> expected = data.stream().sorted(order).map(User::getId).collect(Collectors.toList());
+
+        for (int number = 0; number < 3; number++) {
+            Page page = Page.of(number, 10);
+            PageResult<User> result = users.getPageResult((dao, p) -> dao.pageUsersByEmail(email, p), page, order);
+            Assertions.assertEquals(25, result.getTotalElements());
+            Assertions.assertEquals(3, result.getTotalPages());
+            List<String> ids = result.getStream().map(User::getId).collect(Collectors.toList());
+            Assertions.assertEquals(expected.subList(number * 10, Math.min(25, number * 10 + 10)), ids);
+        }
+    }
+
+    private static List<User> createUsers(String email, int count) {
+        return Stream.generate(UserDAOTest.UserTestBuilder::createUser)
+                .limit(count)
+                .peek(u -> u.setEmail(email))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,91 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.diagnostics.SlowQueryEntry;
+import org.tkit.quarkus.jpa.diagnostics.SlowQueryLog;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("Slow query log tests")
+public class SlowQueryLogTest {
+
+    @Inject
+    SlowQueryLog slowQueryLog;
+
+    @Inject
+    UserDAO userDAO;
+
+    @BeforeEach
+    public void before() {
+        slowQueryLog.clear();
+        slowQueryLog.setThreshold(0);
+    }
+
+    @AfterEach
+    public void after() {
+        slowQueryLog.setThreshold(1000);
+        slowQueryLog.clear();
+    }
+
+    @Test
+    public void pagedQueryTest() {
+        userDAO.create(Stream.generate(UserDAOTest.UserTestBuilder::createUser).limit(5));
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setName("Name_");
+        userDAO.pageUsers(criteria, Page.of(0, 2)).getPageResult().getStream().collect(Collectors.toList());
+
+        List<SlowQueryEntry> entries = slowQueryLog.getEntries();
+        SlowQueryEntry page = entries.stream()
+                .filter(e -> e.getFingerprint() != null && e.getFingerprint().contains("like ?") && !e.getFingerprint().contains("count("))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals("UserDAO#pageUsers", page.getCaller());
+        Assertions.assertEquals("User", page.getEntityName());
+        Assertions.assertEquals(2, page.getRows());
+        Assertions.assertEquals(1, page.getBindCount());
+    }
+
+    @Test
+    public void inheritedMethodCallerTest() {
+        User user = UserDAOTest.UserTestBuilder.createUser();
+        userDAO.create(user);
+        slowQueryLog.clear();
+
+        userDAO.findById(user.getId());
+        userDAO.findAll().count();
+
+        List<String> callers = slowQueryLog.getEntries().stream().map(SlowQueryEntry::getCaller).collect(Collectors.toList());
+        Assertions.assertTrue(callers.contains("UserDAO#findById"), callers.toString());
+        Assertions.assertTrue(callers.contains("UserDAO#findAll"), callers.toString());
+        Assertions.assertTrue(callers.stream().noneMatch(c -> c.contains("_ClientProxy") || c.contains("_Subclass")), callers.toString());
+    }
+
+    @Test
+    public void samplingTest() {
+        slowQueryLog.setSampleRate(0);
+        try {
+            userDAO.findAll().count();
+            Assertions.assertTrue(slowQueryLog.getEntries().isEmpty());
+        } finally {
+            slowQueryLog.setSampleRate(1.0);
+        }
+    }
+
+    @Test
+    public void fingerprintTest() {
+        Assertions.assertEquals("select u from User u where u.name = ? and u.age > ? and u.id in (?)",
+                SlowQueryLog.fingerprint("select u from User u\n where u.name = 'it''s'  and u.age > 10 and u.id in (:p1, :p2, :p3)"));
+        Assertions.assertEquals("select generatedAlias0 from User as generatedAlias0 where generatedAlias0.name like ?",
+                SlowQueryLog.fingerprint("select generatedAlias0 from User as generatedAlias0 where generatedAlias0.name like :param0"));
+    }
+}
@@ -0,0 +1,74 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.Page;
+import org.tkit.quarkus.jpa.junit5.JpaAssertions;
+import org.tkit.quarkus.jpa.junit5.MaxStatements;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.UUID;
+
+@QuarkusTest
+@DisplayName("Statement counter tests")
+public class StatementCounterTest {
+
+    @Inject
+    UserDAO userDAO;
+
+    @Inject
+    AddressDAO addressDAO;
+
+    @Test
+    @MaxStatements(1)
+    public void findByIdTest() {
+        Assertions.assertNull(userDAO.findById(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void pageWithoutAssociationTest() {
+        String prefix = createUsers(5, false);
+
+        JpaAssertions.resetStatements();
+        Assertions.assertEquals(5, userDAO.pageUsers(criteria(prefix), Page.of(0, 10)).getPageResult().getStream().count());
+        JpaAssertions.assertMaxStatements(2);
+        JpaAssertions.assertNoRepeatedSelects();
+    }
+
+    @Test
+    public void eagerAssociationRepeatedSelectTest() {
+        String prefix = createUsers(5, true);
+
+        JpaAssertions.resetStatements();
+        Assertions.assertEquals(5, userDAO.pageUsers(criteria(prefix), Page.of(0, 10)).getPageResult().getStream().count());
+
+        Map<String, Long> repeated = JpaAssertions.getStatementCounter().getRepeatedSelects();
+        Assertions.assertEquals(5L, repeated.get("fetch " + Address.class.getName()));
+        Assertions.assertThrows(AssertionError.class, () -> JpaAssertions.assertMaxStatements(2));
+        Assertions.assertThrows(AssertionError.class, JpaAssertions::assertNoRepeatedSelects);
+    }
+
+    private String createUsers(int count, boolean address) {
+        String prefix = "Statement_" + UUID.randomUUID() + "_";
+        for (int i = 0; i < count; i++) {
+            User user = UserDAOTest.UserTestBuilder.createUser();
+            user.setName(prefix + i);
+            if (address) {
+                Address a = new Address();
+                a.setCity("City_" + i);
+                user.setAddress(addressDAO.create(a));
+            }
+            userDAO.create(user);
+        }
+        return prefix;
+    }
+
+    private static UserSearchCriteria criteria(String prefix) {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setName(prefix);
+        return criteria;
+    }
+}
@@ -1,5 +1,6 @@
 package org.tkit.quarkus.jpa.test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.junit.QuarkusTest;
 import org.hibernate.query.criteria.internal.path.SingularAttributePath;
 import org.junit.jupiter.api.Assertions;
@@ -7,19 +8,44 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tkit.quarkus.jpa.daos.AbstractDAO;
+import org.tkit.quarkus.jpa.daos.EntityBatchLoader;
 import org.tkit.quarkus.jpa.daos.Page;
 import org.tkit.quarkus.jpa.daos.PageResult;
 import org.tkit.quarkus.jpa.daos.PagedQuery;
+import org.tkit.quarkus.jpa.daos.RetryPolicy;
+import org.tkit.quarkus.jpa.daos.ScanResult;
+import org.tkit.quarkus.jpa.exceptions.ConstraintException;
+import org.tkit.quarkus.jpa.exceptions.ConstraintType;
 import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.export.CsvExportWriter;
+import org.tkit.quarkus.jpa.export.ExportResult;
+import org.tkit.quarkus.jpa.export.ExportWriter;
+import org.tkit.quarkus.jpa.export.NdjsonExportWriter;
 import org.tkit.quarkus.jpa.models.TraceableEntity;
+import org.tkit.quarkus.jpa.models.TraceableListener;
 
 import javax.inject.Inject;
 import javax.persistence.OptimisticLockException;
 import javax.persistence.criteria.Order;
+import javax.transaction.RollbackException;
 import javax.transaction.Transactional;
+import javax.transaction.UserTransaction;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,6 +61,12 @@ public class UserDAOTest {
     @Inject
     AddressDAO addressDAO;
 
+    @Inject
+    UserTransaction userTransaction;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     @Test
     public void updateUserTest() {
         User c = new User();
@@ -201,6 +233,380 @@ public class UserDAOTest {
         Assertions.assertEquals(foundUser2.getEmail(), user2.getEmail());
     }
 
+    @Test
+    public void transientEntityHashCodeTest() {
+        User user = UserTestBuilder.createUser();
+        Set<User> users = new HashSet<>();
+        users.add(user);
+        int hashCode = user.hashCode();
+
+        userDAO.create(user);
+
+        Assertions.assertEquals(hashCode, user.hashCode());
+        Assertions.assertTrue(users.contains(user));
+        Assertions.assertNotEquals(user, UserTestBuilder.createUser());
+        Assertions.assertEquals(user, userDAO.findById(user.getId()));
+    }
+
+    @Test
+    public void generateIdOnPersistTest() {
+        User user = UserTestBuilder.createUser();
+        userDAO.create(user);
+        Assertions.assertNotNull(user.getId());
+
+        User loaded = userDAO.findById(user.getId());
+        Assertions.assertEquals(user.getId(), loaded.getId());
+    }
+
+    @Test
+    public void principalProviderTest() {
+        TraceableListener.setPrincipalProvider(() -> "batch-job");
+        try {
+            List<User> users = userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(10))
+                    .collect(Collectors.toList());
+            Assertions.assertTrue(users.stream().allMatch(u -> "batch-job".equals(u.getCreationUser())));
+            Assertions.assertEquals(1, users.stream().map(User::getCreationDate).distinct().count());
+        } finally {
+            TraceableListener.removePrincipalProvider();
+        }
+    }
+
+    @Test
+    public void persistedStateTest() {
+        User user = UserTestBuilder.createUser();
+        Assertions.assertFalse(user.isPersisted());
+        userDAO.create(user);
+        Assertions.assertTrue(user.isPersisted());
+        Assertions.assertTrue(userDAO.findById(user.getId()).isPersisted());
+    }
+
+    @Test
+    public void hydratedPersistedStateTest() {
+        List<Object> ids = userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(500))
+                .map(User::getId)
+                .collect(Collectors.toList());
+        List<User> loaded = userDAO.findByIds(ids).collect(Collectors.toList());
+        Assertions.assertEquals(500, loaded.size());
+        loaded.forEach(u -> Assertions.assertTrue(u.isPersisted()));
+    }
+
+    @Test
+    public void explicitPersistedFlagTest() {
+        User user = UserTestBuilder.createUser();
+        Assertions.assertFalse(user.isPersisted());
+        user.setVersion(1);
+        Assertions.assertTrue(user.isPersisted());
+        user.setPersisted(false);
+        Assertions.assertFalse(user.isPersisted());
+
+        User created = userDAO.create(UserTestBuilder.createUser());
+        User loaded = userDAO.findById(created.getId());
+        Assertions.assertTrue(loaded.isPersisted());
+        loaded.setPersisted(false);
+        Assertions.assertFalse(loaded.isPersisted());
+        loaded.checkPersistentState();
+        Assertions.assertTrue(loaded.isPersisted());
+    }
+
+    @Test
+    public void duplicateIdConstraintTest() {
+        User user = UserTestBuilder.createUser();
+        userDAO.create(user);
+
+        User duplicate = UserTestBuilder.createUser();
+        duplicate.setId(user.getId());
+        ConstraintException ex = Assertions.assertThrows(ConstraintException.class, () -> userDAO.create(duplicate));
+        Assertions.assertEquals(ConstraintType.UNIQUE, ex.getType());
+        Assertions.assertEquals("test_user_pkey", ex.getConstraintName());
+        Assertions.assertEquals(List.of("guid"), ex.getColumns());
+    }
+
+    @Test
+    public void updateWithRetryTest() throws Exception {
+        User user = UserTestBuilder.createUser();
+        user.setName("");
+        userDAO.create(user);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                final String suffix = "" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userDAO.updateWithRetry(user.getId(), u -> u.setName(u.getName() + suffix), RetryPolicy.of(50, 5, 100));
+                }));
+            }
+            start.countDown();
+            for (Future<User> future : futures) {
+                Assertions.assertNotNull(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        User result = userDAO.findById(user.getId());
+        Assertions.assertEquals(threads, result.getName().length());
+        Assertions.assertEquals(threads, result.getVersion().intValue());
+        log.info("Update with retry statistics {}", userDAO.getRetryStatistics());
+        Assertions.assertEquals(0, userDAO.getRetryStatistics().getFailures());
+    }
+
+    @Test
+    public void deferredFlushTest() throws Exception {
+        User user = UserTestBuilder.createUser();
+        userDAO.create(user);
+
+        userTransaction.begin();
+        try {
+            userDAO.deferFlush();
+            Stream.generate(UserTestBuilder::createUser).limit(20).forEach(userDAO::create);
+            User duplicate = UserTestBuilder.createUser();
+            duplicate.setId(user.getId());
+            Assertions.assertDoesNotThrow(() -> userDAO.create(duplicate));
+        } catch (Exception e) {
+            userTransaction.rollback();
+            throw e;
+        }
+        RollbackException ex = Assertions.assertThrows(RollbackException.class, () -> userTransaction.commit());
+        Throwable cause = ex;
+        while (cause != null && !(cause instanceof ConstraintException)) {
+            cause = cause.getCause();
+        }
+        Assertions.assertNotNull(cause);
+        Assertions.assertEquals(ConstraintType.UNIQUE, ((ConstraintException) cause).getType());
+    }
+
+    @Test
+    public void deferredFlushImmediateFlushTest() throws Exception {
+        User user = UserTestBuilder.createUser();
+        userDAO.create(user);
+
+        userTransaction.begin();
+        try {
+            userDAO.deferFlush();
+            Stream.generate(UserTestBuilder::createUser).limit(20).forEach(userDAO::create);
+            User duplicate = UserTestBuilder.createUser();
+            duplicate.setId(user.getId());
+            userDAO.create(duplicate);
+            ConstraintException ex = Assertions.assertThrows(ConstraintException.class, () -> userDAO.flush());
+            Assertions.assertEquals(ConstraintType.UNIQUE, ex.getType());
+        } finally {
+            userTransaction.rollback();
+        }
+    }
+
+    @Test
+    @Transactional
+    public void updateManagedEntityTest() {
+        User user = userDAO.create(UserTestBuilder.createUser());
+        user.setEmail("managed@test.com");
+        Assertions.assertSame(user, userDAO.update(user));
+    }
+
+    @Test
+    public void updateDetachedTest() {
+        User user = userDAO.create(UserTestBuilder.createUser());
+
+        User detached = new User();
+        detached.setId(user.getId());
+        detached.setVersion(user.getVersion());
+        detached.setEmail("detached@test.com");
+        userDAO.updateDetached(detached);
+
+        User result = userDAO.findById(user.getId());
+        Assertions.assertEquals("detached@test.com", result.getEmail());
+        Assertions.assertEquals(user.getName(), result.getName());
+        Assertions.assertEquals(user.getVersion() + 1, result.getVersion().intValue());
+
+        DAOException ex = Assertions.assertThrows(DAOException.class, () -> userDAO.updateDetached(detached));
+        Assertions.assertTrue(ex.getCause() instanceof OptimisticLockException);
+    }
+
+    @Test
+    public void exportCsvTest() {
+        String prefix = "Export_" + UUID.randomUUID() + "_";
+        userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(1050).peek(u -> u.setName(prefix + u.getName())));
+        User quoted = UserTestBuilder.createUser();
+        quoted.setName(prefix + "\"quoted\", name");
+        userDAO.create(quoted);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportResult result = userDAO.exportUsersByName(prefix, out, new CsvExportWriter<User>()
+                .column("name", User::getName)
+                .column("email", User::getEmail));
+
+        Assertions.assertEquals(1051, result.getRows());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        Assertions.assertEquals(1052, lines.length);
+        Assertions.assertEquals("name,email", lines[0]);
+        Assertions.assertTrue(List.of(lines).contains("\"" + prefix + "\"\"quoted\"\", name\"," + quoted.getEmail()));
+    }
+
+    @Test
+    public void exportNdjsonTest() throws Exception {
+        String prefix = "Ndjson_" + UUID.randomUUID() + "_";
+        userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(150).peek(u -> u.setName(prefix + u.getName())));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportResult result = userDAO.exportUsersByName(prefix, out, new NdjsonExportWriter<>(objectMapper));
+
+        Assertions.assertEquals(150, result.getRows());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(150, lines.length);
+        for (String line : lines) {
+            Assertions.assertTrue(line.startsWith("{") && line.endsWith("}"), line);
+            Assertions.assertTrue(objectMapper.readTree(line).get("name").asText().startsWith(prefix));
+        }
+    }
+
+    @Test
+    public void exportFailureClosesWriterTest() {
+        String prefix = "ExportFailure_" + UUID.randomUUID() + "_";
+        userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(5).peek(u -> u.setName(prefix + u.getName())));
+
+        AtomicBoolean closed = new AtomicBoolean();
+        ExportWriter<User> writer = new ExportWriter<>() {
+            @Override
+            public void open(OutputStream out) {
+            }
+
+            @Override
+            public void write(User row) throws IOException {
+                throw new IOException("Export failure");
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        DAOException ex = Assertions.assertThrows(DAOException.class,
+                () -> userDAO.exportUsersByName(prefix, new ByteArrayOutputStream(), writer));
+        Assertions.assertEquals(AbstractDAO.Errors.EXPORT_FAILED, ex.getMessageKey());
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    public void partitionedScanTest() {
+        userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(2000));
+        long total = userDAO.findAll().count();
+
+        ScanResult<Long> result = userDAO.scan(8, 4, Stream::count, Long::sum, 100);
+        Assertions.assertTrue(result.isSuccess());
+        Assertions.assertEquals(8, result.getPartitions());
+        Assertions.assertEquals(total, result.getResult());
+    }
+
+    @Test
+    public void partitionedScanExecutorTest() {
+        userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(100));
+        long total = userDAO.findAll().count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ScanResult<Long> result = userDAO.scan(4, 2, Stream::count, Long::sum, 50, executor);
+            Assertions.assertTrue(result.isSuccess());
+            Assertions.assertEquals(4, result.getPartitions());
+            Assertions.assertEquals(total, result.getResult());
+            Assertions.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void partitionedScanFailureTest() {
+        User user = UserTestBuilder.createUser();
+        userDAO.create(user);
+        userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(100));
+
+        ScanResult<Long> result = userDAO.scan(4, 4, s -> s.peek(u -> {
+            if (u.getId().equals(user.getId())) {
+                throw new IllegalStateException("Partition failure");
+            }
+        }).count(), Long::sum);
+        Assertions.assertFalse(result.isSuccess());
+        Assertions.assertEquals(1, result.getFailures().size());
+        Assertions.assertTrue(result.getFailures().values().iterator().next() instanceof IllegalStateException);
+        Assertions.assertNotNull(result.getResult());
+    }
+
+    @Test
+    @Transactional
+    public void batchLoaderTest() {
+        List<User> users = userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(5)).collect(Collectors.toList());
+
+        EntityBatchLoader<User> loader = userDAO.createBatchLoader(100);
+        CompletableFuture<User> first = loader.load(users.get(0).getId());
+        Assertions.assertSame(first, loader.load(users.get(0).getId()));
+        List<CompletableFuture<User>> futures = loader.loadMany(users.stream().map(User::getId).collect(Collectors.toList()));
+        CompletableFuture<User> missing = loader.load("missing-" + UUID.randomUUID());
+        Assertions.assertEquals(6, loader.getPendingSize());
+        Assertions.assertFalse(first.isDone());
+
+        loader.dispatch();
+        Assertions.assertEquals(0, loader.getPendingSize());
+        for (int i = 0; i < users.size(); i++) {
+            Assertions.assertSame(users.get(i), futures.get(i).join());
+        }
+        Assertions.assertNull(missing.join());
+        Assertions.assertSame(users.get(1), loader.get(users.get(1).getId()));
+    }
+
+    @Test
+    public void batchLoaderMaxBatchSizeTest() {
+        List<User> users = userDAO.create(Stream.generate(UserTestBuilder::createUser).limit(3)).collect(Collectors.toList());
+
+        EntityBatchLoader<User> loader = userDAO.createBatchLoader(2);
+        List<CompletableFuture<User>> futures = loader.loadMany(users.stream().map(User::getId).collect(Collectors.toList()));
+        Assertions.assertTrue(futures.get(0).isDone());
+        Assertions.assertTrue(futures.get(1).isDone());
+        Assertions.assertFalse(futures.get(2).isDone());
+        Assertions.assertEquals(users.get(2).getId(), loader.get(users.get(2).getId()).getId());
+    }
+
+    @Test
+    public void hashCodeTest() {
+        User user = UserTestBuilder.createUser();
+        int transientHash = user.hashCode();
+        user.generateId();
+        Assertions.assertNotEquals(transientHash, user.hashCode());
+        Assertions.assertEquals(user.getId().hashCode(), user.hashCode());
+
+        userDAO.create(user);
+        User loaded = userDAO.findById(user.getId());
+        Assertions.assertEquals(user, loaded);
+        Assertions.assertEquals(user.hashCode(), loaded.hashCode());
+        Assertions.assertTrue(Set.of(user).contains(loaded));
+
+        int hash = loaded.hashCode();
+        loaded.setId(UUID.randomUUID().toString());
+        Assertions.assertEquals(hash, loaded.hashCode());
+    }
+
+    @Test
+    public void pureIdGetterTest() {
+        User user = UserTestBuilder.createUser();
+        Assertions.assertNull(user.getId());
+        Assertions.assertNull(user.getId());
+        Assertions.assertNotEquals(user, UserTestBuilder.createUser());
+
+        User merged = userDAO.update(user);
+        Assertions.assertNotNull(merged.getId());
+        Assertions.assertNull(user.getId());
+        Assertions.assertNotNull(userDAO.findById(merged.getId()));
+
+        User generated = UserTestBuilder.createUser();
+        generated.generateId();
+        String id = generated.getId();
+        Assertions.assertNotNull(id);
+        userDAO.create(generated);
+        Assertions.assertEquals(id, generated.getId());
+    }
+
     public static class UserTestBuilder {
 
         public static User createUser() {
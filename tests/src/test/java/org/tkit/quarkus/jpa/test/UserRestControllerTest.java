@@ -9,6 +9,9 @@ import org.junit.jupiter.api.Test;
 import javax.ws.rs.core.Response;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
 
 @QuarkusTest
 public class UserRestControllerTest extends AbstractTest {
@@ -88,7 +91,62 @@ public class UserRestControllerTest extends AbstractTest {
                 .pathParam("size", 10)
                 .get("users/pageHeader/{index}/{size}")
                 .then()
-                .statusCode(Response.Status.OK.getStatusCode());
+                .statusCode(Response.Status.OK.getStatusCode())
+                .header("number", "1")
+                .header("size", "10")
+                .header("totalElements", notNullValue())
+                .body("size()", lessThanOrEqualTo(10));
+    }
+
+    @Test
+    public void pageStreamTest() {
+        for (int i = 0; i < 25; i++) {
+            User user = new User();
+            user.setEmail("stream" + i);
+            user.setName("PageStreamName" + i);
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(user)
+                    .post("users")
+                    .then()
+                    .statusCode(Response.Status.OK.getStatusCode());
+        }
+
+        given()
+                .contentType(ContentType.JSON)
+                .pathParam("index", 0)
+                .pathParam("size", 20)
+                .get("users/page/{index}/{size}")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .header("size", "20")
+                .body("number", equalTo(0))
+                .body("size", equalTo(20))
+                .body("stream.size()", equalTo(20));
+    }
+
+    @Test
+    public void exportTest() {
+        User user = new User();
+        user.setEmail("export@test.com");
+        user.setName("ExportRestName");
+
+        User tmp = given()
+                .contentType(ContentType.JSON)
+                .body(user)
+                .post("users")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().body().as(User.class);
+
+        String csv = given()
+                .get("users/export")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().body().asString();
+
+        Assertions.assertTrue(csv.startsWith("id,name,email\r\n"));
+        Assertions.assertTrue(csv.contains(tmp.getId() + ",ExportRestName,export@test.com\r\n"));
     }
 
     @Test
@@ -0,0 +1,149 @@
+package org.tkit.quarkus.jpa.test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.tkit.quarkus.jpa.daos.WriteBehindQueue;
+import org.tkit.quarkus.jpa.exceptions.DAOException;
+import org.tkit.quarkus.jpa.models.TraceableListener;
+
+import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@QuarkusTest
+@DisplayName("Write-behind queue tests")
+public class WriteBehindQueueTest extends AbstractTest {
+
+    @Inject
+    UserDAO userDAO;
+
+    @Test
+    public void writeBehindTest() {
+        List<User> users = Stream.generate(UserDAOTest.UserTestBuilder::createUser).limit(55).collect(Collectors.toList());
+        WriteBehindQueue<User> queue = userDAO.createWriteBehindQueue(100, 10, 50);
+        users.forEach(queue::enqueue);
+        queue.close();
+
+        Assertions.assertEquals(0, queue.getDepth());
+        Assertions.assertEquals(55, queue.getWritten());
+        Assertions.assertEquals(0, queue.getFailed());
+        Assertions.assertTrue(queue.getBatches() >= 6);
+        List<Object> ids = users.stream().map(User::getId).collect(Collectors.toList());
+        Assertions.assertEquals(55, userDAO.findByIds(ids).count());
+
+        DAOException ex = Assertions.assertThrows(DAOException.class, () -> queue.enqueue(UserDAOTest.UserTestBuilder.createUser()));
+        Assertions.assertEquals(WriteBehindQueue.Errors.WRITE_BEHIND_CLOSED, ex.key);
+    }
+
+    @Test
+    public void backPressureAndFailureTest() throws Exception {
+        User user = userDAO.create(UserDAOTest.UserTestBuilder.createUser());
+        User duplicate = UserDAOTest.UserTestBuilder.createUser();
+        duplicate.setId(user.getId());
+
+        CountDownLatch failure = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindQueue<User> queue = userDAO.createWriteBehindQueue(2, 1, 10)
+                .offerTimeout(10)
+                .onFailure(batch -> {
+                    failure.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        try {
+            queue.enqueue(duplicate);
+            Assertions.assertTrue(failure.await(10, TimeUnit.SECONDS));
+
+            // the worker is blocked in the failure handler
+            queue.enqueue(UserDAOTest.UserTestBuilder.createUser());
+            queue.enqueue(UserDAOTest.UserTestBuilder.createUser());
+            Assertions.assertEquals(2, queue.getDepth());
+            DAOException ex = Assertions.assertThrows(DAOException.class, () -> queue.enqueue(UserDAOTest.UserTestBuilder.createUser()));
+            Assertions.assertEquals(WriteBehindQueue.Errors.WRITE_BEHIND_QUEUE_FULL, ex.key);
+        } finally {
+            release.countDown();
+            queue.close();
+        }
+        Assertions.assertEquals(1, queue.getFailed());
+        Assertions.assertEquals(1, queue.getRejected());
+        Assertions.assertEquals(2, queue.getWritten());
+    }
+
+    @Test
+    public void concurrentCloseTest() throws Exception {
+        WriteBehindQueue<User> queue = userDAO.createWriteBehindQueue(10_000, 50, 10);
+        LongAdder accepted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(producers.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < 200; n++) {
+                        try {
+                            queue.enqueue(UserDAOTest.UserTestBuilder.createUser());
+                            accepted.increment();
+                        } catch (DAOException e) {
+                            Assertions.assertEquals(WriteBehindQueue.Errors.WRITE_BEHIND_CLOSED, e.key);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            Thread.sleep(20);
+            queue.close();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+
+        // every accepted entity is written, none is left in the queue after the close
+        Assertions.assertEquals(0, queue.getDepth());
+        Assertions.assertEquals(0, queue.getFailed());
+        Assertions.assertEquals(accepted.sum(), queue.getWritten());
+    }
+
+    @Test
+    public void producerTraceabilityTest() throws Exception {
+        User user = UserDAOTest.UserTestBuilder.createUser();
+        WriteBehindQueue<User> queue = userDAO.createWriteBehindQueue(10, 10, 500);
+        LocalDateTime before = LocalDateTime.now();
+        TraceableListener.setPrincipalProvider(() -> "producer");
+        try {
+            queue.enqueue(user);
+        } finally {
+            TraceableListener.removePrincipalProvider();
+        }
+        LocalDateTime enqueued = LocalDateTime.now();
+        Thread.sleep(100);
+        queue.close();
+
+        Assertions.assertEquals(1, queue.getWritten());
+        Assertions.assertFalse(user.isControlTraceabilityManual());
+        Assertions.assertFalse(user.getCreationDate().isBefore(before));
+        Assertions.assertFalse(user.getCreationDate().isAfter(enqueued));
+        Assertions.assertEquals(user.getCreationDate(), user.getModificationDate());
+
+        User result = userDAO.findById(user.getId());
+        Assertions.assertEquals("producer", result.getCreationUser());
+        Assertions.assertEquals("producer", result.getModificationUser());
+    }
+}